@@ -11,7 +11,6 @@ import taskscheduler.java.tasks.DependentTask;
 import taskscheduler.java.tasks.Task;
 import taskscheduler.java.other.TaskPriority;
 
-import java.math.BigInteger;
 import java.util.concurrent.PriorityBlockingQueue;
 
 public class Main {
@@ -44,13 +43,13 @@ public class Main {
         RemoteServer remoteServer = new RemoteServer("localhost", 12345, retryPolicy);  // Remote server on localhost:12345
 
         // Task with timeout of 5 seconds but will take 7 seconds to execute (expected to fail)
-        DependentTask timeoutTask = new DependentTask(new Duration(BigInteger.valueOf(7000)), TaskPriority.HIGH);
+        DependentTask timeoutTask = new DependentTask(Duration.ofMillis(7000), TaskPriority.HIGH);
         timeoutTask.setTimeout(5000);  // Timeout set to 5 seconds
 
         // Create a chain of 3 dependent tasks A, B, and C
-        DependentTask taskA = new DependentTask(new Duration(BigInteger.valueOf(3000)), TaskPriority.HIGH); // Takes 3 seconds
-        DependentTask taskB = new DependentTask(new Duration(BigInteger.valueOf(3000)), TaskPriority.MEDIUM); // Takes 7 seconds (will timeout)
-        DependentTask taskC = new DependentTask(new Duration(BigInteger.valueOf(2000)), TaskPriority.LOW); // Takes 2 seconds
+        DependentTask taskA = new DependentTask(Duration.ofMillis(3000), TaskPriority.HIGH); // Takes 3 seconds
+        DependentTask taskB = new DependentTask(Duration.ofMillis(3000), TaskPriority.MEDIUM); // Takes 7 seconds (will timeout)
+        DependentTask taskC = new DependentTask(Duration.ofMillis(2000), TaskPriority.LOW); // Takes 2 seconds
 
         // Set timeouts for the dependent tasks
         taskA.setTimeout(5000);  // Task A timeout is 5 seconds
@@ -1,68 +1,441 @@
 package taskscheduler.java;
 
+import taskscheduler.java.concurrent.TaskExecutors;
+import taskscheduler.java.exceptions.SchedulerFullException;
 import taskscheduler.java.exceptions.ServerException;
+import taskscheduler.java.management.MBeanRegistrar;
+import taskscheduler.java.scheduling.CompletionRegistry;
+import taskscheduler.java.scheduling.ServerSelectionStrategy;
+import taskscheduler.java.scheduling.TaskHandle;
+import taskscheduler.java.servers.RemoteServer;
 import taskscheduler.java.servers.Server;
+import taskscheduler.java.servers.ServerHealthListener;
 import taskscheduler.java.tasks.Task;
 
-import java.math.BigInteger;
 import java.util.*;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class TaskScheduler {
 
     private static final Logger logger = Logger.getLogger(TaskScheduler.class.getName());
+    private static final AtomicInteger SCHEDULER_IDS = new AtomicInteger();
 
-    // PriorityQueue to store servers with load balancing (lightest load first)
-    private final PriorityBlockingQueue<Server> servers = new PriorityBlockingQueue<>(
-            11,
-            Comparator.comparing(Server::getTotalLoad, BigInteger::compareTo)  // Compare servers based on their load
-    );
+    private final String name;  // Unique within the process, e.g. for naming its MBean
+
+    // Strategy that owns the registered servers and picks one for each task
+    private final ServerSelectionStrategy selectionStrategy;
+
+    // Cluster-wide task completions shared by every server, so dependencies can span servers
+    private final CompletionRegistry completionRegistry = new CompletionRegistry();
+
+    // Servers whose tasks failed during the last execution to finish, with the reason. Each execution
+    // collects its own failures and publishes them when done, so concurrent executions do not mix them up.
+    private volatile Map<Server, ServerException> failedServers = Map.of();
+
+    // Every server added, including those failure detection has taken out of the strategy. Those are still
+    // executed, so their pass hands the tasks they hold over to healthy servers.
+    private final List<Server> registeredServers = new CopyOnWriteArrayList<>();
+    private final Set<Server> unavailableServers = ConcurrentHashMap.newKeySet();
+
+    // Whether servers dispatch tasks as they are scheduled instead of waiting for executeAll()
+    private volatile boolean dispatching;
+    private volatile boolean paused;  // Servers start no new attempts until resume()
+
+    // Registered MBeans, while the scheduler is exported over JMX
+    private volatile MBeanRegistrar mbeans;
+
+    // Creates a scheduler that places each task on the least loaded server
+    public TaskScheduler() {
+        this(ServerSelectionStrategy.leastLoaded());
+    }
+
+    // Creates a scheduler that places tasks using the given selection strategy
+    public TaskScheduler(ServerSelectionStrategy selectionStrategy) {
+        this.selectionStrategy = Objects.requireNonNull(selectionStrategy, "Selection strategy cannot be null");
+        this.name = "scheduler-" + SCHEDULER_IDS.incrementAndGet();
+    }
 
     // Adds a server (local or remote) to the scheduler
     public void addServer(Server server) {
         Objects.requireNonNull(server, "Server cannot be null");
-        servers.add(server);  // Add to the unified server queue
+        server.setLoadListener(selectionStrategy::onLoadChanged);  // Keep the strategy's view of the load current
+        server.setCompletionRegistry(completionRegistry);
+        server.setRejectedTaskHandler(this::placeElsewhere);
+        selectionStrategy.addServer(server);
+        registeredServers.add(server);
+        if (server instanceof RemoteServer remote) {
+            remote.setHealthListener(failover);
+            remote.startHeartbeat(RemoteServer.DEFAULT_HEARTBEAT_INTERVAL_MILLIS);  // Keeps its load and health current
+        }
+        if (paused) {
+            server.pause();
+        }
+        if (dispatching) {
+            server.startDispatching();
+        }
+        MBeanRegistrar registrar = mbeans;
+        if (registrar != null) {
+            registrar.register(server);
+        }
     }
 
-    // Schedules a task to the server with the least load
-    public void scheduleTask(Task task) throws ServerException {
+    // Schedules a task to the server chosen by the selection strategy and returns a handle to await,
+    // chain on or cancel it
+    public TaskHandle scheduleTask(Task task) throws ServerException {
         Objects.requireNonNull(task, "Task cannot be null");
 
-        // Poll the server with the least load (can be local or remote)
-        Server leastLoadedServer = servers.poll();
-        if (leastLoadedServer != null) {
-            // Add the task to the least loaded server
-            leastLoadedServer.addTask(task);
-
-            // Reinsert the server back into the queue with updated load
-            servers.add(leastLoadedServer);
+        // Ask the strategy for a server (can be local or remote)
+        Server selectedServer = selectionStrategy.selectServer(task);
+        if (selectedServer != null) {
+            // Pending and with a handle before the task is queued, since a dispatching server may settle it at once
+            completionRegistry.registerPending(task.getId());
+            TaskHandle handle = getHandle(task);
+            try {
+                // Add the task to the selected server; its load listener updates the strategy
+                selectedServer.addTask(task);
+            } catch (ServerException | RuntimeException e) {
+                completionRegistry.markFailed(task.getId(), e);  // No longer pending
+                throw e;
+            }
+            return handle;
         } else {
             throw new ServerException("No available server to schedule the task.", new Exception());
         }
     }
 
-    // Executes tasks across all servers and returns the results
-    public Map<Server, List<Task>> executeAll() throws ServerException {
-        Map<Server, List<Task>> results = new HashMap<>();
+    // Handle to a task already scheduled, e.g. through scheduleAll()
+    public TaskHandle getHandle(Task task) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        return new TaskHandle(task, completionRegistry.completion(task.getId()), this::cancelTask);
+    }
+
+    // Cancel a task on whichever server currently holds it; returns false if none does
+    public boolean cancelTask(Task task, boolean mayInterruptIfRunning) {
+        for (Server server : registeredServers) {
+            if (server.cancelTask(task, mayInterruptIfRunning)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        for (Server server : servers) {
+    // Takes suspected servers out of the selection so no new work goes to them, and flags them so the next
+    // execution moves their queued tasks to healthy servers; recovered servers are put back
+    private final ServerHealthListener failover = new ServerHealthListener() {
+        @Override
+        public void onServerDown(Server server) {
+            if (unavailableServers.add(server)) {
+                selectionStrategy.removeServer(server);
+                server.markTasksReleased();
+                logger.log(Level.WARNING, "Server {0} is unavailable; rerouting its tasks.", server);
+            }
+        }
+
+        @Override
+        public void onServerUp(Server server) {
+            if (unavailableServers.remove(server)) {
+                selectionStrategy.addServer(server);
+                logger.log(Level.INFO, "Server {0} is available again.", server);
+            }
+        }
+    };
+
+    // Place a task a busy or failed server gave back on the least loaded other server that has room for it.
+    // The target is flagged so executeAll() runs it again if its pass has already ended.
+    private boolean placeElsewhere(Server from, Task task) {
+        List<Server> candidates = selectionStrategy.getServers();
+        candidates.remove(from);
+        candidates.sort(Comparator.comparingLong(Server::getTotalLoad));
+        for (Server candidate : candidates) {
             try {
-                // Execute tasks on each server and collect the results
-                List<Task> completedTasks = server.executeTasks();
-                results.put(server, completedTasks);
+                candidate.addTask(task);
+                candidate.markTasksReleased();
+                logger.log(Level.INFO, "Task {0} moved from busy server {1} to {2}.", new Object[]{task.getId(), from, candidate});
+                return true;
+            } catch (SchedulerFullException | ServerException e) {
+                logger.log(Level.FINE, "Server {0} cannot take task {1}: {2}", new Object[]{candidate, task.getId(), e.getMessage()});
+            }
+        }
+        logger.log(Level.WARNING, "No other server can take task {0} from busy server {1}.", new Object[]{task.getId(), from});
+        return false;
+    }
+
+    // Schedules a batch of tasks in one pass and returns the tasks that could not be placed.
+    // Tasks are ordered by priority and then longest estimated duration first, and each one goes to the
+    // server with the most remaining capacity (longest-processing-time-first bin packing). Every server
+    // then receives its share through a single bulk insert, so monitoring runs once per server per batch.
+    public List<Task> scheduleAll(Collection<? extends Task> tasks) throws ServerException {
+        Objects.requireNonNull(tasks, "Tasks cannot be null");
+
+        List<Server> candidates = selectionStrategy.getServers();
+        if (candidates.isEmpty()) {
+            throw new ServerException("No available server to schedule the tasks.", new Exception());
+        }
+
+        List<Task> ordered = new ArrayList<>(tasks);
+        ordered.forEach(task -> Objects.requireNonNull(task, "Task cannot be null"));
+        ordered.sort(Comparator.comparing(Task::getPriority, Comparator.reverseOrder())
+                .thenComparing(task -> task.getEstimatedDuration().toMillis(), Comparator.reverseOrder()));
+
+        // Max-heap of servers by the capacity still free in this batch
+        PriorityQueue<Placement> placements = new PriorityQueue<>(candidates.size(),
+                Comparator.comparingLong((Placement placement) -> placement.remaining).reversed());
+        candidates.forEach(server -> placements.add(new Placement(server)));
+
+        List<Task> unplaced = new ArrayList<>();
+        for (Task task : ordered) {
+            long duration = task.getEstimatedDuration().toMillis();
+            Placement roomiest = placements.poll();
+            if (duration > roomiest.remaining) {
+                unplaced.add(task);  // Does not fit on the emptiest server, so it fits nowhere
+            } else {
+                roomiest.assigned.add(task);
+                roomiest.remaining -= duration;
+            }
+            placements.add(roomiest);
+        }
+
+        // Bulk insert per server; a server can still reject tasks if its capacity changed meanwhile
+        for (Placement placement : placements) {
+            if (!placement.assigned.isEmpty()) {
+                // Pending before they are queued, since a dispatching server may settle them at once
+                placement.assigned.forEach(task -> completionRegistry.registerPending(task.getId()));
+                List<Task> rejected = placement.server.addTasks(placement.assigned);
+                rejected.forEach(task -> completionRegistry.unregisterPending(task.getId()));
+                unplaced.addAll(rejected);
+            }
+        }
+
+        logger.log(Level.INFO, "Scheduled {0} of {1} tasks in batch, {2} could not be placed.",
+                new Object[]{ordered.size() - unplaced.size(), ordered.size(), unplaced.size()});
+        return unplaced;
+    }
+
+    // A server's share of a batch while it is being bin-packed
+    private static final class Placement {
+        private final Server server;
+        private final List<Task> assigned = new ArrayList<>();
+        private long remaining;
+
+        private Placement(Server server) {
+            this.server = server;
+            this.remaining = server.getRemainingCapacity();
+        }
+    }
 
-            } catch (ServerException e) {
-                throw new ServerException("Failed executing server tasks.", e);
+    // Executes tasks across all servers and returns the results.
+    // Servers whose tasks were waiting on a dependency that completed elsewhere, or that received tasks from a
+    // failed server, run again until nothing is released. Nothing is thrown: a failing server does not abort
+    // the others, and its exception is reported through getFailedServers().
+    public Map<Server, List<Task>> executeAll() {
+        Map<Server, ServerException> failures = new HashMap<>();
+        Map<Server, List<Task>> results = new HashMap<>();
+
+        List<Server> toRun = new ArrayList<>(registeredServers);
+        while (!toRun.isEmpty()) {
+            for (Server server : toRun) {
+                try {
+                    // Execute tasks on each server and collect the results
+                    List<Task> completedTasks = server.executeTasks();
+                    results.merge(server, completedTasks, TaskScheduler::concat);
+
+                } catch (ServerException e) {
+                    failures.put(server, e);
+                    results.putIfAbsent(server, Collections.emptyList());
+                    logger.log(Level.SEVERE, "Server {0} failed executing tasks: {1}", new Object[]{server, e.getMessage()});
+                }
             }
+            toRun = releasedServers();
+            toRun.removeIf(failures::containsKey);
         }
 
+        failedServers = failures;
         return results;
     }
 
+    // Servers with tasks released by a cross-server dependency since their last pass
+    private List<Server> releasedServers() {
+        List<Server> released = new ArrayList<>();
+        for (Server server : registeredServers) {
+            if (server.takeReleasedTasks()) {
+                released.add(server);
+            }
+        }
+        return released;
+    }
+
+    private static List<Task> concat(List<Task> first, List<Task> second) {
+        List<Task> merged = new ArrayList<>(first);
+        merged.addAll(second);
+        return merged;
+    }
+
+    // Executes tasks on every server at the same time, each on its own thread. executeTasks() blocks, so a
+    // shared pool would cap the parallelism at its size; this one has a thread per server and is shut down
+    // afterwards, so the wall time is that of the slowest server.
+    public Map<Server, List<Task>> executeAllInParallel() {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, registeredServers.size()),
+                TaskExecutors.daemonThreadFactory("scheduler-execute"));
+        try {
+            return executeAllInParallel(executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Executes tasks on every server at the same time using the given executor.
+    // A failing server does not abort the others; its exception is kept in getFailedServers().
+    public Map<Server, List<Task>> executeAllInParallel(Executor executor) {
+        Objects.requireNonNull(executor, "Executor cannot be null");
+        Map<Server, ServerException> failures = new HashMap<>();
+
+        Map<Server, List<Task>> results = new HashMap<>();
+        List<Server> toRun = new ArrayList<>(registeredServers);
+        while (!toRun.isEmpty()) {
+            Map<Server, CompletableFuture<List<Task>>> pending = new HashMap<>();
+            for (Server server : toRun) {
+                pending.put(server, CompletableFuture.supplyAsync(() -> executeServerTasks(server), executor));
+            }
+
+            pending.forEach((server, future) -> {
+                try {
+                    results.merge(server, future.join(), TaskScheduler::concat);
+                } catch (CompletionException e) {
+                    ServerException cause = e.getCause() instanceof ServerException
+                            ? (ServerException) e.getCause()
+                            : new ServerException("Failed executing server tasks.", e.getCause());
+                    failures.put(server, cause);
+                    results.putIfAbsent(server, Collections.emptyList());
+                    logger.log(Level.SEVERE, "Server {0} failed executing tasks: {1}", new Object[]{server, cause.getMessage()});
+                }
+            });
+
+            // Run again only the healthy servers whose waiting tasks were released meanwhile
+            toRun = releasedServers();
+            toRun.removeIf(failures::containsKey);
+        }
+
+        failedServers = failures;
+        logger.log(Level.INFO, "Parallel execution finished on {0} servers, {1} failed.",
+                new Object[]{results.size(), failures.size()});
+        return results;
+    }
+
+    // Runs a single server's tasks, rethrowing checked failures so they travel through the future
+    private List<Task> executeServerTasks(Server server) {
+        try {
+            return server.executeTasks();
+        } catch (ServerException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // Switch every server to continuous dispatch, so tasks start as soon as they are scheduled.
+    // executeAll() keeps working but finds nothing left to run on dispatching servers.
+    public void startDispatching() {
+        dispatching = true;
+        for (Server server : registeredServers) {
+            server.startDispatching();
+        }
+    }
+
+    // Stop continuous dispatch on every server; tasks not yet started stay queued for executeAll()
+    public void stopDispatching() throws InterruptedException {
+        dispatching = false;
+        for (Server server : registeredServers) {
+            server.stopDispatching();
+        }
+    }
+
+    // Stop taking new tasks into the dispatchers and wait until every server has finished the ones it has
+    public void drain() throws InterruptedException {
+        dispatching = false;
+        for (Server server : registeredServers) {
+            server.drain();
+        }
+    }
+
+    public boolean isDispatching() {
+        return dispatching;
+    }
+
+    // Stop every server from starting new attempts; tasks can still be scheduled and wait in the queues
+    public void pause() {
+        paused = true;
+        for (Server server : registeredServers) {
+            server.pause();
+        }
+    }
+
+    public void resume() {
+        paused = false;
+        for (Server server : registeredServers) {
+            server.resume();
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    // Export the scheduler and its servers, including those added later, as MBeans on the platform MBean
+    // server, e.g. for jconsole. Has no effect if they are already exported.
+    public synchronized void registerMBeans() {
+        if (mbeans == null) {
+            MBeanRegistrar registrar = new MBeanRegistrar(name);
+            mbeans = registrar;  // Before registering, so a server added meanwhile is not missed
+            registrar.register(this);
+        }
+    }
+
+    public synchronized void unregisterMBeans() {
+        if (mbeans != null) {
+            mbeans.unregisterAll();
+            mbeans = null;
+        }
+    }
+
+    // Name unique within the process, e.g. scheduler-1
+    public String getName() {
+        return name;
+    }
+
+    // Every server added, including unavailable ones; a live read-only view
+    public List<Server> getRegisteredServers() {
+        return Collections.unmodifiableList(registeredServers);
+    }
+
+    // Servers that failed during the last execution, mapped to their failure
+    public Map<Server, ServerException> getFailedServers() {
+        return new HashMap<>(failedServers);
+    }
+
+    // Servers failure detection currently considers down; they receive no new tasks
+    public Set<Server> getUnavailableServers() {
+        return new HashSet<>(unavailableServers);
+    }
+
+    // The registry through which servers share task completions
+    public CompletionRegistry getCompletionRegistry() {
+        return completionRegistry;
+    }
+
+    // The strategy used to place tasks
+    public ServerSelectionStrategy getSelectionStrategy() {
+        return selectionStrategy;
+    }
+
     // Retrieve all servers (useful for external access, logging, etc.)
     public PriorityBlockingQueue<Server> getServers() {
-        return new PriorityBlockingQueue<>(servers);
+        List<Server> snapshot = selectionStrategy.getServers();
+        PriorityBlockingQueue<Server> copy = new PriorityBlockingQueue<>(
+                Math.max(1, snapshot.size()),
+                Comparator.comparingLong(Server::getTotalLoad)  // Compare servers based on their load
+        );
+        copy.addAll(snapshot);
+        return copy;
     }
 }
-
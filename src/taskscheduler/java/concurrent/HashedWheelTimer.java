@@ -0,0 +1,156 @@
+package taskscheduler.java.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Hashed timing wheel: one ticker thread advances a ring of buckets every tick and fires the timeouts
+// whose deadline has passed. Scheduling and cancelling are O(1) and never create threads, which makes it
+// suitable for per-task deadlines and retry delays. Expiry actions run on the ticker thread, so they must
+// be short (cancel a future, hand a task back to a queue) and never block.
+public class HashedWheelTimer {
+
+    private static final Logger logger = Logger.getLogger(HashedWheelTimer.class.getName());
+
+    // A scheduled action that can be cancelled until it fires
+    public static final class Timeout {
+        private final Runnable action;
+        private final long deadline;  // Nanoseconds relative to the timer's start time
+        private final AtomicBoolean done = new AtomicBoolean();
+        private long remainingRounds;
+
+        private Timeout(Runnable action, long deadline) {
+            this.action = action;
+            this.deadline = deadline;
+        }
+
+        // Prevent the action from running; returns false if it already fired or was cancelled
+        public boolean cancel() {
+            return done.compareAndSet(false, true);
+        }
+
+        public boolean isExpiredOrCancelled() {
+            return done.get();
+        }
+
+        private boolean expire() {
+            return done.compareAndSet(false, true);
+        }
+    }
+
+    private final long tickNanos;
+    private final Queue<Timeout>[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Thread ticker;
+    private final long startTime;
+    private volatile boolean stopped;
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimer(ThreadFactory threadFactory, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("Ticks per wheel must be positive");
+        }
+        int size = Integer.highestOneBit(ticksPerWheel - 1) << 1;  // Round up to a power of two
+        this.wheel = (Queue<Timeout>[]) new Queue<?>[Math.max(1, size)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.mask = wheel.length - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startTime = System.nanoTime();
+        this.ticker = threadFactory.newThread(this::run);
+        this.ticker.start();
+    }
+
+    // Schedule an action to run once the delay has elapsed (rounded up to the next tick)
+    public Timeout newTimeout(Runnable action, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timer has been stopped");
+        }
+        long deadline = deadlineAfter(unit.toNanos(Math.max(0, delay)));
+        Timeout timeout = new Timeout(action, deadline);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    // Nanoseconds since start at which a delay ends, saturating so a huge delay such as a saturated retry
+    // backoff means "never" instead of overflowing into the past
+    private long deadlineAfter(long delayNanos) {
+        try {
+            return Math.addExact(System.nanoTime() - startTime, delayNanos);
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // Stop the ticker; pending timeouts are discarded
+    public void stop() {
+        stopped = true;
+        ticker.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (!stopped) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (stopped) {
+                        return;
+                    }
+                }
+            }
+            transferPendingTimeouts(tick);
+            expireTimeouts(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    // Move newly scheduled timeouts into their buckets (only the ticker thread touches the wheel)
+    private void transferPendingTimeouts(long currentTick) {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.isExpiredOrCancelled()) {
+                continue;
+            }
+            // Last tick before the deadline, rounding up; written so a saturated deadline cannot overflow
+            long expiryTick = Math.max(currentTick, (timeout.deadline - 1) / tickNanos);
+            timeout.remainingRounds = (expiryTick - currentTick) / wheel.length;
+            wheel[(int) (expiryTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(Queue<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isExpiredOrCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                if (timeout.expire()) {
+                    try {
+                        timeout.action.run();
+                    } catch (RuntimeException e) {
+                        logger.log(Level.SEVERE, "Timer action failed: {0}", e.getMessage());
+                    }
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package taskscheduler.java.concurrent;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Process-wide executors shared by every server and task, so the hot path never creates threads of its own
+public final class TaskExecutors {
+
+    private static final long TIMER_TICK_MILLIS = 10;
+    private static final int TIMER_TICKS_PER_WHEEL = 512;
+
+    private TaskExecutors() {
+    }
+
+    // One ticker thread for every deadline and delay in the process
+    private static final class TimerHolder {
+        private static final HashedWheelTimer INSTANCE = new HashedWheelTimer(
+                daemonThreadFactory("task-timer"), TIMER_TICK_MILLIS, TimeUnit.MILLISECONDS, TIMER_TICKS_PER_WHEEL);
+    }
+
+    // Daemon threads that run task bodies; idle threads are reused instead of creating one per execution
+    private static final class ExecutionPoolHolder {
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(daemonThreadFactory("task-execution"));
+    }
+
+    // Shared timer for deadlines and delayed work such as retries; callers must not stop it
+    public static HashedWheelTimer timer() {
+        return TimerHolder.INSTANCE;
+    }
+
+    // Shared pool for task bodies; callers must not shut it down
+    public static ExecutorService executionPool() {
+        return ExecutionPoolHolder.INSTANCE;
+    }
+
+    // Run the action on the shared pool and wait for it, cancelling (interrupting) it if the deadline passes first.
+    // Throws TimeoutException on expiry and ExecutionException if the action itself threw.
+    public static void runWithTimeout(Runnable action, long timeoutMillis)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Future<?> future = executionPool().submit(action);
+        AtomicBoolean timedOut = new AtomicBoolean();
+        HashedWheelTimer.Timeout deadline = timer().newTimeout(() -> {
+            timedOut.set(true);
+            future.cancel(true);
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+
+        try {
+            future.get();
+        } catch (CancellationException e) {
+            if (timedOut.get()) {
+                throw new TimeoutException("Timed out after " + timeoutMillis + " ms");
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } finally {
+            deadline.cancel();
+        }
+    }
+
+    // Thread factory producing named daemon threads, numbered from 1
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package taskscheduler.java.exceptions;
+
+// A server is too loaded to accept a task now; it may be sent again after the given delay
+public class ServerBusyException extends ServerException {
+
+    private final long retryAfterMillis;
+
+    public ServerBusyException(String message, long retryAfterMillis) {
+        super(message, null);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,8 @@
+package taskscheduler.java.exceptions;
+
+// A server cannot be reached, or is suspected down; its tasks should run somewhere else
+public class ServerUnavailableException extends ServerException {
+    public ServerUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,102 @@
+package taskscheduler.java.management;
+
+import taskscheduler.java.TaskScheduler;
+import taskscheduler.java.servers.RemoteServer;
+import taskscheduler.java.servers.Server;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Registers the MBeans of one scheduler and its servers under the "taskscheduler" domain:
+//   taskscheduler:type=TaskScheduler,name=<scheduler>
+//   taskscheduler:type=Server,scheduler=<scheduler>,name=<server>
+//   taskscheduler:type=RemoteServer,scheduler=<scheduler>,name=<server>
+// Monitoring must never stop scheduling, so registration failures are logged rather than thrown.
+public class MBeanRegistrar {
+
+    private static final Logger logger = Logger.getLogger(MBeanRegistrar.class.getName());
+
+    public static final String DOMAIN = "taskscheduler";
+
+    private final MBeanServer mbeanServer;
+    private final String schedulerName;
+    private final Set<ObjectName> registered = ConcurrentHashMap.newKeySet();
+
+    // Registers with the platform MBean server, which jconsole and JMX agents read
+    public MBeanRegistrar(String schedulerName) {
+        this(ManagementFactory.getPlatformMBeanServer(), schedulerName);
+    }
+
+    public MBeanRegistrar(MBeanServer mbeanServer, String schedulerName) {
+        this.mbeanServer = mbeanServer;
+        this.schedulerName = schedulerName;
+    }
+
+    // Register the scheduler and every server it has so far
+    public void register(TaskScheduler scheduler) {
+        register(schedulerObjectName(schedulerName), new StandardMBean(new TaskSchedulerMetrics(scheduler), TaskSchedulerMXBean.class, true));
+        for (Server server : scheduler.getRegisteredServers()) {
+            register(server);
+        }
+    }
+
+    public void register(Server server) {
+        if (server instanceof RemoteServer remote) {
+            register(serverObjectName(schedulerName, server), new StandardMBean(new RemoteServerMetrics(remote), RemoteServerMXBean.class, true));
+        } else {
+            register(serverObjectName(schedulerName, server), new StandardMBean(new ServerMetrics(server), ServerMXBean.class, true));
+        }
+    }
+
+    private void register(ObjectName name, StandardMBean mbean) {
+        try {
+            if (mbeanServer.isRegistered(name)) {
+                mbeanServer.unregisterMBean(name);  // Left behind by an earlier registrar with the same name
+            }
+            mbeanServer.registerMBean(mbean, name);
+            registered.add(name);
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Could not register MBean {0}: {1}", new Object[]{name, e.getMessage()});
+        }
+    }
+
+    // Unregister every MBean this registrar registered
+    public void unregisterAll() {
+        for (ObjectName name : registered) {
+            try {
+                mbeanServer.unregisterMBean(name);
+            } catch (InstanceNotFoundException e) {
+                // Already gone
+            } catch (JMException e) {
+                logger.log(Level.WARNING, "Could not unregister MBean {0}: {1}", new Object[]{name, e.getMessage()});
+            }
+            registered.remove(name);
+        }
+    }
+
+    public static ObjectName schedulerObjectName(String schedulerName) {
+        return objectName("type=TaskScheduler,name=" + schedulerName);
+    }
+
+    public static ObjectName serverObjectName(String schedulerName, Server server) {
+        String type = server instanceof RemoteServer ? "RemoteServer" : "Server";
+        return objectName("type=" + type + ",scheduler=" + schedulerName + ",name=" + server.getName());
+    }
+
+    private static ObjectName objectName(String properties) {
+        try {
+            return new ObjectName(DOMAIN + ":" + properties);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid MBean name: " + properties, e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package taskscheduler.java.management;
+
+// A remote server adds its link to the executor: the in-flight window, health, and the shared connection pool
+public interface RemoteServerMXBean extends ServerMXBean {
+
+    String getRemoteAddress();
+
+    int getInFlightTasks();
+
+    int getInFlightWindow();
+
+    boolean isSuspected();
+
+    int getConsecutiveFailures();
+
+    long getExecutorBacklogMillis();
+
+    // Connection pool, shared by every remote server targeting the same address
+    int getPoolConnections();
+
+    int getPoolMaxConnections();
+
+    int getPoolInFlightRequests();
+
+    long getPoolOpenedConnections();
+
+    long getPoolIdleClosedConnections();
+
+    long getPoolUnhealthyConnections();
+}
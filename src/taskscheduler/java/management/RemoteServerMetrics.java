@@ -0,0 +1,78 @@
+package taskscheduler.java.management;
+
+import taskscheduler.java.servers.RemoteConnectionPool;
+import taskscheduler.java.servers.RemoteServer;
+
+public class RemoteServerMetrics extends ServerMetrics implements RemoteServerMXBean {
+
+    private final RemoteServer server;
+
+    public RemoteServerMetrics(RemoteServer server) {
+        super(server);
+        this.server = server;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return server.getRemoteAddress();
+    }
+
+    @Override
+    public int getInFlightTasks() {
+        return server.getInFlightCount();
+    }
+
+    @Override
+    public int getInFlightWindow() {
+        return server.getInFlightWindow();
+    }
+
+    @Override
+    public boolean isSuspected() {
+        return server.isSuspected();
+    }
+
+    @Override
+    public int getConsecutiveFailures() {
+        return server.getConsecutiveFailures();
+    }
+
+    @Override
+    public long getExecutorBacklogMillis() {
+        return server.getTelemetry().estimatedBacklogMillis();
+    }
+
+    @Override
+    public int getPoolConnections() {
+        return pool().size();
+    }
+
+    @Override
+    public int getPoolMaxConnections() {
+        return pool().getMaxConnections();
+    }
+
+    @Override
+    public int getPoolInFlightRequests() {
+        return pool().getInFlightCount();
+    }
+
+    @Override
+    public long getPoolOpenedConnections() {
+        return pool().getOpenedCount();
+    }
+
+    @Override
+    public long getPoolIdleClosedConnections() {
+        return pool().getIdleClosedCount();
+    }
+
+    @Override
+    public long getPoolUnhealthyConnections() {
+        return pool().getUnhealthyCount();
+    }
+
+    private RemoteConnectionPool pool() {
+        return server.getConnectionPool();
+    }
+}
@@ -0,0 +1,66 @@
+package taskscheduler.java.management;
+
+// Live view of one server for JMX clients such as jconsole. Every attribute is read from counters the server
+// keeps anyway, so polling it does not copy the queue or slow the server down. Latencies are in microseconds.
+public interface ServerMXBean {
+
+    String getName();
+
+    // Queue
+    int getQueuedTasks();
+
+    int getQueuedHighPriorityTasks();
+
+    int getQueuedMediumPriorityTasks();
+
+    int getQueuedLowPriorityTasks();
+
+    long getRemainingCapacity();
+
+    long getTotalLoad();
+
+    int getWorkerCount();
+
+    // Outcomes
+    long getCompletedTasks();
+
+    long getFailedTasks();
+
+    int getDeadLetterTasks();
+
+    double getThroughput();
+
+    double getWindowedFailureRate();
+
+    int getPendingRetries();
+
+    double getMeanRetries();
+
+    long getMaxRetries();
+
+    // Latency percentiles
+    long getQueueWaitP50Micros();
+
+    long getQueueWaitP99Micros();
+
+    long getQueueWaitP999Micros();
+
+    long getExecutionP50Micros();
+
+    long getExecutionP99Micros();
+
+    long getExecutionP999Micros();
+
+    long getExecutionMaxMicros();
+
+    // State and control
+    boolean isDispatching();
+
+    boolean isPaused();
+
+    void pause();
+
+    void resume();
+
+    void drain();
+}
@@ -0,0 +1,170 @@
+package taskscheduler.java.management;
+
+import taskscheduler.java.other.PerformanceMonitor;
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.servers.Server;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Adapts a server to its MBean interface; holds no state of its own
+public class ServerMetrics implements ServerMXBean {
+
+    private static final Logger logger = Logger.getLogger(ServerMetrics.class.getName());
+
+    private final Server server;
+
+    public ServerMetrics(Server server) {
+        this.server = server;
+    }
+
+    @Override
+    public String getName() {
+        return server.getName();
+    }
+
+    @Override
+    public int getQueuedTasks() {
+        return server.getQueuedTaskCount();
+    }
+
+    @Override
+    public int getQueuedHighPriorityTasks() {
+        return server.getQueuedTaskCount(TaskPriority.HIGH);
+    }
+
+    @Override
+    public int getQueuedMediumPriorityTasks() {
+        return server.getQueuedTaskCount(TaskPriority.MEDIUM);
+    }
+
+    @Override
+    public int getQueuedLowPriorityTasks() {
+        return server.getQueuedTaskCount(TaskPriority.LOW);
+    }
+
+    @Override
+    public long getRemainingCapacity() {
+        return server.getRemainingCapacity();
+    }
+
+    @Override
+    public long getTotalLoad() {
+        return server.getTotalLoad();
+    }
+
+    @Override
+    public int getWorkerCount() {
+        return server.getWorkerCount();
+    }
+
+    @Override
+    public long getCompletedTasks() {
+        return monitor().getCompletedCount();
+    }
+
+    @Override
+    public long getFailedTasks() {
+        return monitor().getFailedCount();
+    }
+
+    @Override
+    public int getDeadLetterTasks() {
+        return server.getDeadLetterQueue().size();
+    }
+
+    @Override
+    public double getThroughput() {
+        return monitor().getThroughput();
+    }
+
+    @Override
+    public double getWindowedFailureRate() {
+        return monitor().getWindowedFailureRate();
+    }
+
+    @Override
+    public int getPendingRetries() {
+        return server.getPendingRetryCount();
+    }
+
+    @Override
+    public double getMeanRetries() {
+        return monitor().getRetryHistogram().getMean();
+    }
+
+    @Override
+    public long getMaxRetries() {
+        return monitor().getRetryHistogram().getMax();
+    }
+
+    @Override
+    public long getQueueWaitP50Micros() {
+        return monitor().getQueueWaitHistogram().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getQueueWaitP99Micros() {
+        return monitor().getQueueWaitHistogram().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getQueueWaitP999Micros() {
+        return monitor().getQueueWaitHistogram().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getExecutionP50Micros() {
+        return monitor().getExecutionHistogram().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getExecutionP99Micros() {
+        return monitor().getExecutionHistogram().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getExecutionP999Micros() {
+        return monitor().getExecutionHistogram().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getExecutionMaxMicros() {
+        return monitor().getExecutionHistogram().getMax();
+    }
+
+    @Override
+    public boolean isDispatching() {
+        return server.isDispatching();
+    }
+
+    @Override
+    public boolean isPaused() {
+        return server.isPaused();
+    }
+
+    @Override
+    public void pause() {
+        server.pause();
+    }
+
+    @Override
+    public void resume() {
+        server.resume();
+    }
+
+    // Waits for the dispatcher to finish the tasks it has; a server that is not dispatching returns at once
+    @Override
+    public void drain() {
+        try {
+            server.drain();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.log(Level.WARNING, "Interrupted while draining {0}", server.getName());
+        }
+    }
+
+    private PerformanceMonitor monitor() {
+        return server.getPerformanceMonitor();
+    }
+}
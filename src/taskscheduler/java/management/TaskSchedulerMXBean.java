@@ -0,0 +1,39 @@
+package taskscheduler.java.management;
+
+// Cluster-wide totals over every server of a scheduler, summed from the servers' counters on each read
+public interface TaskSchedulerMXBean {
+
+    String getName();
+
+    int getServers();
+
+    int getUnavailableServers();
+
+    int getQueuedTasks();
+
+    int getQueuedHighPriorityTasks();
+
+    int getQueuedMediumPriorityTasks();
+
+    int getQueuedLowPriorityTasks();
+
+    long getRemainingCapacity();
+
+    long getTotalLoad();
+
+    long getCompletedTasks();
+
+    long getFailedTasks();
+
+    double getThroughput();
+
+    boolean isDispatching();
+
+    boolean isPaused();
+
+    void pause();
+
+    void resume();
+
+    void drain();
+}
@@ -0,0 +1,123 @@
+package taskscheduler.java.management;
+
+import taskscheduler.java.TaskScheduler;
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.servers.Server;
+
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Adapts a scheduler to its MBean interface; totals are summed over the registered servers on each read
+public class TaskSchedulerMetrics implements TaskSchedulerMXBean {
+
+    private static final Logger logger = Logger.getLogger(TaskSchedulerMetrics.class.getName());
+
+    private final TaskScheduler scheduler;
+
+    public TaskSchedulerMetrics(TaskScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public String getName() {
+        return scheduler.getName();
+    }
+
+    @Override
+    public int getServers() {
+        return scheduler.getRegisteredServers().size();
+    }
+
+    @Override
+    public int getUnavailableServers() {
+        return scheduler.getUnavailableServers().size();
+    }
+
+    @Override
+    public int getQueuedTasks() {
+        return (int) sum(Server::getQueuedTaskCount);
+    }
+
+    @Override
+    public int getQueuedHighPriorityTasks() {
+        return (int) sum(server -> server.getQueuedTaskCount(TaskPriority.HIGH));
+    }
+
+    @Override
+    public int getQueuedMediumPriorityTasks() {
+        return (int) sum(server -> server.getQueuedTaskCount(TaskPriority.MEDIUM));
+    }
+
+    @Override
+    public int getQueuedLowPriorityTasks() {
+        return (int) sum(server -> server.getQueuedTaskCount(TaskPriority.LOW));
+    }
+
+    @Override
+    public long getRemainingCapacity() {
+        return sum(Server::getRemainingCapacity);
+    }
+
+    @Override
+    public long getTotalLoad() {
+        return sum(Server::getTotalLoad);
+    }
+
+    @Override
+    public long getCompletedTasks() {
+        return sum(server -> server.getPerformanceMonitor().getCompletedCount());
+    }
+
+    @Override
+    public long getFailedTasks() {
+        return sum(server -> server.getPerformanceMonitor().getFailedCount());
+    }
+
+    @Override
+    public double getThroughput() {
+        double throughput = 0;
+        for (Server server : scheduler.getRegisteredServers()) {
+            throughput += server.getPerformanceMonitor().getThroughput();
+        }
+        return throughput;
+    }
+
+    @Override
+    public boolean isDispatching() {
+        return scheduler.isDispatching();
+    }
+
+    @Override
+    public boolean isPaused() {
+        return scheduler.isPaused();
+    }
+
+    @Override
+    public void pause() {
+        scheduler.pause();
+    }
+
+    @Override
+    public void resume() {
+        scheduler.resume();
+    }
+
+    @Override
+    public void drain() {
+        try {
+            scheduler.drain();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.log(Level.WARNING, "Interrupted while draining {0}", scheduler.getName());
+        }
+    }
+
+    private long sum(ToLongFunction<Server> counter) {
+        long total = 0;
+        for (Server server : scheduler.getRegisteredServers()) {
+            total += counter.applyAsLong(server);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,38 @@
+package taskscheduler.java.other;
+
+// One alert as delivered to the sinks. The key identifies what is being alerted on, e.g. "failure-rate",
+// and is what deduplication and cooldowns are applied to.
+public class Alert {
+    private final String key;
+    private final AlertSystem.AlertLevel level;
+    private final String message;
+    private final long timestampMillis;
+
+    public Alert(String key, AlertSystem.AlertLevel level, String message, long timestampMillis) {
+        this.key = key;
+        this.level = level;
+        this.message = message;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public AlertSystem.AlertLevel getLevel() {
+        return level;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + level + "] " + key + ": " + message;
+    }
+}
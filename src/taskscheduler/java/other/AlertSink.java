@@ -0,0 +1,43 @@
+package taskscheduler.java.other;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Destination for alerts. Sinks are called on the alert dispatcher thread, one alert at a time, so they may
+// block briefly but should not stall for long.
+public interface AlertSink {
+
+    void send(Alert alert);
+
+    // Prints warnings and critical alerts to standard output; INFO alerts such as recoveries are left to the log
+    static AlertSink console() {
+        return alert -> {
+            if (alert.getLevel() != AlertSystem.AlertLevel.INFO) {
+                System.out.println("[" + alert.getLevel() + "] ALERT: " + alert.getMessage());
+            }
+        };
+    }
+
+    // Logs every alert through java.util.logging at a level matching its severity
+    static AlertSink logging() {
+        Logger logger = Logger.getLogger(AlertSystem.class.getName());
+        return alert -> {
+            switch (alert.getLevel()) {
+                case INFO -> logger.log(Level.INFO, alert.getMessage());
+                case WARNING -> logger.log(Level.WARNING, alert.getMessage());
+                case CRITICAL -> logger.log(Level.SEVERE, alert.getMessage());
+            }
+        };
+    }
+
+    // Mocked email for critical alerts only, recorded in the log (In real use case, integrate with an email service)
+    static AlertSink email(String recipient) {
+        Logger logger = Logger.getLogger(AlertSink.class.getName());
+        return alert -> {
+            if (alert.getLevel() == AlertSystem.AlertLevel.CRITICAL) {
+                logger.log(Level.INFO, "Email alert to {0}: [{1}] Server Alert: {2}",
+                        new Object[]{recipient, alert.getLevel(), alert.getMessage()});
+            }
+        };
+    }
+}
@@ -1,88 +1,255 @@
 package taskscheduler.java.other;
 
+import taskscheduler.java.concurrent.TaskExecutors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+// Raises alerts without slowing down the caller. Alerts are deduplicated per key: one whose level is
+// unchanged since the last alert for that key is suppressed until the cooldown has passed, so a steady
+// state costs a map lookup and nothing else. Alerts that do go out are queued on a bounded queue and
+// delivered to the sinks on a single shared dispatcher thread; when the queue is full they are dropped
+// and counted rather than blocking the caller. Checks can also be submitted to run on that thread.
 public class AlertSystem {
 
     private static final Logger logger = Logger.getLogger(AlertSystem.class.getName());
 
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final long DEFAULT_COOLDOWN_MILLIS = 60_000;
+
     // Define different levels of alerts
     public enum AlertLevel {
         INFO, WARNING, CRITICAL
     }
 
+    // One thread delivers for every alert system, so a server per alert system costs no threads
+    private static final class DispatcherHolder {
+        private static final ExecutorService INSTANCE = Executors.newSingleThreadExecutor(TaskExecutors.daemonThreadFactory("alert-dispatcher"));
+    }
+
+    // Last alert raised for a key; replaced, never mutated, so a sweep cannot remove a state that was just refreshed
+    private record AlertState(AlertLevel level, long sentAtMillis) {
+    }
+
+    private final BlockingQueue<Runnable> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();  // A drain is scheduled or running
+    private final List<AlertSink> sinks = new CopyOnWriteArrayList<>();
+    private final Map<String, AlertState> states = new ConcurrentHashMap<>();
+    private final long cooldownMillis;
+    private final AtomicLong lastSweepMillis = new AtomicLong();
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // Alerts go to the log and (for critical ones) a mocked email
+    public AlertSystem() {
+        this(DEFAULT_QUEUE_CAPACITY, DEFAULT_COOLDOWN_MILLIS, List.of(AlertSink.logging(), AlertSink.email("admin@company.com")));
+    }
+
+    public AlertSystem(int queueCapacity, long cooldownMillis, List<AlertSink> sinks) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        if (cooldownMillis < 0) {
+            throw new IllegalArgumentException("Cooldown cannot be negative");
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.cooldownMillis = cooldownMillis;
+        this.sinks.addAll(sinks);
+    }
+
+    public void addSink(AlertSink sink) {
+        sinks.add(Objects.requireNonNull(sink, "Sink cannot be null"));
+    }
+
+    public void removeSink(AlertSink sink) {
+        sinks.remove(sink);
+    }
+
     // Trigger an alert with a custom message and a default WARNING level
     public void triggerAlert(String message) {
         triggerAlert(AlertLevel.WARNING, message);
     }
 
-    // Trigger an alert with a specified alert level and message
+    // Trigger an alert with a specified alert level and message; the message is its own key, so prefer a
+    // stable key when the text varies. States past their cooldown are swept, so varying keys do not pile up.
     public void triggerAlert(AlertLevel level, String message) {
-        switch (level) {
-            case INFO, WARNING:
-                sendConsoleAlert(level, message);
-                logAlert(level, message);
-                break;
-            case CRITICAL:
-                sendConsoleAlert(level, message);
-                logAlert(level, message);
-                sendEmailAlert(level, message);
-                break;
+        triggerAlert(message, level, message);
+    }
+
+    // Trigger an alert for a key; returns false if it was suppressed or dropped
+    public boolean triggerAlert(String key, AlertLevel level, String message) {
+        return raise(key, level, () -> message);
+    }
+
+    // Run a check on the dispatcher thread, e.g. one that evaluates thresholds and raises alerts.
+    // Returns false if the queue is full and the check was dropped.
+    public boolean submitCheck(Runnable check) {
+        return enqueue(Objects.requireNonNull(check, "Check cannot be null"));
+    }
+
+    // Raise an alert unless its key is already at this level and still cooling down. The message is only
+    // built, on the dispatcher thread, for alerts that go out.
+    private boolean raise(String key, AlertLevel level, Supplier<String> message) {
+        long now = System.currentTimeMillis();
+        sweepExpiredStates(now);
+        boolean[] send = new boolean[1];
+        states.compute(key, (k, state) -> {
+            if (state != null && state.level() == level && now - state.sentAtMillis() < cooldownMillis) {
+                return state;
+            }
+            send[0] = true;
+            return new AlertState(level, now);
+        });
+        if (!send[0]) {
+            suppressed.increment();
+            return false;
         }
+        return enqueue(() -> deliver(new Alert(key, level, message.get(), now)));
     }
 
-    // Send an alert to the console (basic output)
-    private void sendConsoleAlert(AlertLevel level, String message) {
-        System.out.println("[" + level + "] ALERT: " + message);
+    // A state past its cooldown suppresses nothing, so dropping it changes no outcome. Sweeps at most once per
+    // cooldown (or second), keeping the cost off the common path.
+    private void sweepExpiredStates(long now) {
+        long last = lastSweepMillis.get();
+        if (now - last < Math.max(cooldownMillis, 1000) || !lastSweepMillis.compareAndSet(last, now)) {
+            return;
+        }
+        states.entrySet().removeIf(entry -> now - entry.getValue().sentAtMillis() >= cooldownMillis);
+    }
+
+    // Keys currently remembered for deduplication
+    public int getTrackedKeyCount() {
+        return states.size();
+    }
+
+    private boolean enqueue(Runnable work) {
+        if (!queue.offer(work)) {
+            dropped.increment();
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            DispatcherHolder.INSTANCE.execute(this::drain);
+        }
+        return true;
+    }
+
+    // Runs on the dispatcher thread until the queue is empty
+    private void drain() {
+        do {
+            Runnable work;
+            while ((work = queue.poll()) != null) {
+                try {
+                    work.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Alert work failed: {0}", e.getMessage());
+                }
+            }
+            draining.set(false);
+            // Work enqueued after the last poll but before the flag was cleared would otherwise wait for the next alert
+        } while (!queue.isEmpty() && draining.compareAndSet(false, true));
     }
 
-    // Log the alert using the Java logging system
-    private void logAlert(AlertLevel level, String message) {
-        switch (level) {
-            case INFO:
-                logger.log(Level.INFO, message);
-                break;
-            case WARNING:
-                logger.log(Level.WARNING, message);
-                break;
-            case CRITICAL:
-                logger.log(Level.SEVERE, message);
-                break;
+    private void deliver(Alert alert) {
+        for (AlertSink sink : sinks) {
+            try {
+                sink.send(alert);
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Alert sink failed for {0}: {1}", new Object[]{alert.getKey(), e.getMessage()});
+            }
         }
+        delivered.increment();
     }
 
-    // Mocked method to send an email alert for critical issues
-    private void sendEmailAlert(AlertLevel level, String message) {
-        // Simulating email sending process (In real use case, integrate with an email service)
-        System.out.println("Sending email alert...");
-        System.out.println("To: admin@company.com");
-        System.out.println("Subject: [" + level + "] Server Alert");
-        System.out.println("Message: " + message);
+    // Wait until everything queued so far has been delivered, including alerts raised by queued checks;
+    // returns false on timeout
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        do {
+            CountDownLatch done = new CountDownLatch(1);
+            while (!enqueue(done::countDown)) {
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                Thread.sleep(1);  // Queue full; let the dispatcher make room
+            }
+            if (!done.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+            // Alerts raised by a check land behind the marker, so go round again until none are left
+        } while (!queue.isEmpty());
+        return true;
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    // Alerts not sent because their key was cooling down at the same level
+    public long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    // Alerts and checks lost because the queue was full
+    public long getDroppedCount() {
+        return dropped.sum();
     }
 
     // Method to create an alert based on specific thresholds
     public void checkForHighFailureRate(double failureRate, double threshold) {
         if (failureRate > threshold) {
-            triggerAlert(AlertLevel.CRITICAL, "Failure rate exceeded threshold! Current failure rate: " + (failureRate * 100) + "%");
+            raise("failure-rate", AlertLevel.CRITICAL, () -> "Failure rate exceeded threshold! Current failure rate: " + (failureRate * 100) + "%");
+        } else {
+            raise("failure-rate", AlertLevel.INFO, () -> "Failure rate within acceptable limits: " + (failureRate * 100) + "%");
+        }
+    }
+
+    public void checkForFailureSurge(boolean surging, long failures, long previousFailures, int windowSeconds) {
+        if (surging) {
+            raise("failure-surge", AlertLevel.WARNING, () -> "Failures are surging! " + failures + " in the last " + windowSeconds
+                    + "s against " + previousFailures + " in the " + windowSeconds + "s before");
+        } else {
+            raise("failure-surge", AlertLevel.INFO, () -> "No failure surge: " + failures + " failures in the last " + windowSeconds + "s");
+        }
+    }
+
+    public void checkForQueueGrowth(double growthPerSecond, double threshold) {
+        if (growthPerSecond > threshold) {
+            raise("queue-growth", AlertLevel.WARNING, () -> "Task queue growing fast! " + growthPerSecond + " tasks per second");
         } else {
-            triggerAlert(AlertLevel.INFO, "Failure rate within acceptable limits: " + (failureRate * 100) + "%");
+            raise("queue-growth", AlertLevel.INFO, () -> "Task queue growth is under control: " + growthPerSecond + " tasks per second");
         }
     }
 
     public void checkForHighTaskQueue(int taskQueueSize, int threshold) {
         if (taskQueueSize > threshold) {
-            triggerAlert(AlertLevel.WARNING, "Task queue size exceeded threshold! Current size: " + taskQueueSize);
+            raise("task-queue", AlertLevel.WARNING, () -> "Task queue size exceeded threshold! Current size: " + taskQueueSize);
         } else {
-            triggerAlert(AlertLevel.INFO, "Task queue size is under control: " + taskQueueSize);
+            raise("task-queue", AlertLevel.INFO, () -> "Task queue size is under control: " + taskQueueSize);
         }
     }
 
     public void checkForHighTotalLoad(long totalLoad, long threshold) {
         if (totalLoad > threshold) {
-            triggerAlert(AlertLevel.CRITICAL, "Total load exceeded threshold! Current load: " + totalLoad + " ms");
+            raise("total-load", AlertLevel.CRITICAL, () -> "Total load exceeded threshold! Current load: " + totalLoad + " ms");
         } else {
-            triggerAlert(AlertLevel.INFO, "Total load is within acceptable limits: " + totalLoad + " ms");
+            raise("total-load", AlertLevel.INFO, () -> "Total load is within acceptable limits: " + totalLoad + " ms");
         }
     }
 }
@@ -0,0 +1,84 @@
+package taskscheduler.java.other;
+
+// Per-server alert thresholds, evaluated over a sliding window of recent seconds. Defaults match the
+// limits the monitor used before thresholds became configurable.
+public class AlertThresholds {
+
+    public static final int MAX_WINDOW_SECONDS = 300;  // History is kept for twice this, for rate-of-change checks
+
+    private volatile int windowSeconds = 60;
+    private volatile double failureRate = 0.10;  // Share of tasks failing within the window
+    private volatile int minSamples = 20;  // Outcomes needed in the window before rates are trusted
+    private volatile double failureSurgeFactor = 3.0;  // Failures this many times the previous window's
+    private volatile int queueSize = 10;  // Queued tasks
+    private volatile double queueGrowthPerSecond = 50;  // Queue growth averaged over the window
+    private volatile long totalLoadMillis = 20000;  // Estimated work queued
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(int windowSeconds) {
+        if (windowSeconds < 1 || windowSeconds > MAX_WINDOW_SECONDS) {
+            throw new IllegalArgumentException("Window must be between 1 and " + MAX_WINDOW_SECONDS + " seconds");
+        }
+        this.windowSeconds = windowSeconds;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public void setFailureRate(double failureRate) {
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Failure rate must be between 0 and 1");
+        }
+        this.failureRate = failureRate;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        if (minSamples < 1) {
+            throw new IllegalArgumentException("Minimum samples must be at least 1");
+        }
+        this.minSamples = minSamples;
+    }
+
+    public double getFailureSurgeFactor() {
+        return failureSurgeFactor;
+    }
+
+    public void setFailureSurgeFactor(double failureSurgeFactor) {
+        if (failureSurgeFactor <= 1) {
+            throw new IllegalArgumentException("Surge factor must be greater than 1");
+        }
+        this.failureSurgeFactor = failureSurgeFactor;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public double getQueueGrowthPerSecond() {
+        return queueGrowthPerSecond;
+    }
+
+    public void setQueueGrowthPerSecond(double queueGrowthPerSecond) {
+        this.queueGrowthPerSecond = queueGrowthPerSecond;
+    }
+
+    public long getTotalLoadMillis() {
+        return totalLoadMillis;
+    }
+
+    public void setTotalLoadMillis(long totalLoadMillis) {
+        this.totalLoadMillis = totalLoadMillis;
+    }
+}
@@ -1,52 +1,79 @@
 package taskscheduler.java.other;
 
 import java.math.BigInteger;
-import java.util.Objects;
 
 public class Duration {
-    private BigInteger duration;  // Stores duration in a numeric format that can handle large values
+    private long millis;  // Stores duration in milliseconds as a primitive to keep the hot path allocation-free
 
-    // Constructor to initialize Duration with a BigInteger value
+    // Constructor to initialize Duration with a millisecond value
+    public Duration(long millis) {
+        this.millis = millis;
+    }
+
+    // Constructor to initialize Duration with a BigInteger value (must fit in a long)
     public Duration(BigInteger duration) {
-        this.duration = duration;
+        this(toLong(duration));
     }
 
     // Copy constructor for defensive copying
     public Duration(Duration other) {
-        if (other == null || other.getDuration() == null) {
+        if (other == null) {
             throw new IllegalArgumentException("Duration to copy cannot be null");
         }
-        this.duration = new BigInteger(other.getDuration().toString());  // Defensive copy using a new BigInteger instance
+        this.millis = other.millis;
+    }
+
+    // Getter method to retrieve the duration in milliseconds
+    public long toMillis() {
+        return millis;
     }
 
-    // Getter method to retrieve the duration value
+    // Getter method to retrieve the duration value as a BigInteger (allocates; prefer toMillis())
     public BigInteger getDuration() {
-        return duration;
+        return BigInteger.valueOf(millis);
     }
 
     // Setter method to update the duration value
     public void setDuration(BigInteger duration) {
-        this.duration = duration;
+        this.millis = toLong(duration);
+    }
+
+    // Method to add a specified duration to the current duration
+    public void addDuration(long millis) {
+        this.millis = Math.addExact(this.millis, millis);
     }
 
     // Method to add a specified duration to the current duration
     public void addDuration(BigInteger duration) {
-        this.duration = this.duration.add(duration);
+        addDuration(toLong(duration));
+    }
+
+    // Method to subtract a specified duration from the current duration
+    public void subtractDuration(long millis) {
+        this.millis = Math.subtractExact(this.millis, millis);
     }
 
     // Method to subtract a specified duration from the current duration
     public void subtractDuration(BigInteger duration) {
-        this.duration = this.duration.subtract(duration);
+        subtractDuration(toLong(duration));
     }
 
     // Compares this duration with another Duration object
     public int compareDurations(Duration durationInput) {
-        return this.duration.compareTo(durationInput.getDuration());
+        return Long.compare(this.millis, durationInput.millis);
     }
 
     // Static factory method to create Duration from milliseconds
     public static Duration ofMillis(long millis) {
-        return new Duration(BigInteger.valueOf(millis));
+        return new Duration(millis);
+    }
+
+    // Convert a BigInteger to milliseconds, rejecting values that do not fit in a long
+    private static long toLong(BigInteger duration) {
+        if (duration == null) {
+            throw new IllegalArgumentException("Duration cannot be null");
+        }
+        return duration.longValueExact();
     }
 
     // Override equals method to compare durations based on value
@@ -55,12 +82,12 @@ public class Duration {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Duration duration1 = (Duration) o;
-        return Objects.equals(duration, duration1.duration);
+        return millis == duration1.millis;
     }
 
     // Override hashCode method to generate hash based on duration value
     @Override
     public int hashCode() {
-        return Objects.hash(duration);
+        return Long.hashCode(millis);
     }
 }
@@ -0,0 +1,92 @@
+package taskscheduler.java.other;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// All-time distribution of non-negative values in fixed memory, using log-linear buckets in the style of
+// HdrHistogram: each power of two is split into 32 linear sub-buckets, so any percentile is reported within
+// about 3% of the true value. Recording is lock-free and constant time; reading a percentile walks the
+// buckets once. Values above 2^40 share the top bucket, though the maximum is always exact.
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long HIGHEST_TRACKABLE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative: " + value);
+        }
+        counts.incrementAndGet(bucketOf(Math.min(value, HIGHEST_TRACKABLE)));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    // Values below 32 get a bucket each; above that, the top five bits after the leading one pick the sub-bucket
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    // Highest value that falls into the bucket
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    // Value at the given percentile (0-100); never more than the maximum recorded, 0 if nothing was recorded
+    public long getValueAtPercentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                // The top bucket also holds everything too large to track, so only the maximum bounds it
+                return bucket == BUCKET_COUNT - 1 ? max.get() : Math.min(highestValueIn(bucket), max.get());
+            }
+        }
+        return max.get();  // Recordings raced with the walk
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMean() {
+        long total = count.sum();
+        return total > 0 ? (double) sum.sum() / total : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + " p50=" + getValueAtPercentile(50) + " p99=" + getValueAtPercentile(99)
+                + " p999=" + getValueAtPercentile(99.9) + " max=" + getMax();
+    }
+}
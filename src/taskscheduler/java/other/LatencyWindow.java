@@ -0,0 +1,53 @@
+package taskscheduler.java.other;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// The most recent latency samples in a fixed-size ring, for percentiles over recent behaviour rather than
+// all time. Recording is lock-free; percentiles copy and sort the window, so read them sparingly.
+public class LatencyWindow {
+
+    private final AtomicLongArray samples;
+    private final int mask;
+    private final AtomicLong recorded = new AtomicLong();
+
+    // Keeps the last 'size' samples; size is rounded up to a power of two
+    public LatencyWindow(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be at least 1");
+        }
+        int capacity = Integer.highestOneBit(size - 1) << 1;
+        capacity = Math.max(1, capacity);
+        this.samples = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public void record(long millis) {
+        samples.set((int) (recorded.getAndIncrement() & mask), millis);
+    }
+
+    // Number of samples currently in the window
+    public int size() {
+        return (int) Math.min(recorded.get(), samples.length());
+    }
+
+    // Percentiles (0-100) of the samples in the window, in the order requested; zeros if there are none
+    public long[] percentiles(double... percentiles) {
+        int size = size();
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = samples.get(i);
+        }
+        Arrays.sort(values);
+
+        long[] result = new long[percentiles.length];
+        if (size > 0) {
+            for (int i = 0; i < percentiles.length; i++) {
+                int rank = (int) Math.ceil(percentiles[i] / 100.0 * size) - 1;
+                result[i] = values[Math.max(0, Math.min(size - 1, rank))];
+            }
+        }
+        return result;
+    }
+}
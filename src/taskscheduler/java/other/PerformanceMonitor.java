@@ -1,68 +1,265 @@
 package taskscheduler.java.other;
 
+import taskscheduler.java.concurrent.TaskExecutors;
 import taskscheduler.java.servers.Server;
 import taskscheduler.java.tasks.Task;
 
-import java.math.BigInteger;
-import java.util.List;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 import java.util.logging.Logger;
 
+// Tracks a server's outcomes with counters the server updates at each lifecycle event, so every statistic
+// is read in constant time no matter how long the server has been running. Measured queue-wait and execution
+// times (in microseconds) and retry counts go into fixed-size histograms, overall and per task priority.
+// Alerts are evaluated on a fixed tick against per-second sliding windows, so a burst of failures trips
+// them within seconds however long the server has been healthy, and tasks pay nothing for the checks.
 public class PerformanceMonitor {
     private final Server server;  // Monitor a single server's performance
     private static final Logger logger = Logger.getLogger(PerformanceMonitor.class.getName());
     private final AlertSystem alertSystem;  // Use AlertSystem for sending alerts
 
-    // Define threshold values for triggering alerts
-    private static final double FAILURE_RATE_THRESHOLD = 0.10;  // 10% failure rate threshold
-    private static final int TASK_QUEUE_THRESHOLD = 10;  // Task queue size threshold
-    private static final BigInteger TOTAL_LOAD_THRESHOLD = BigInteger.valueOf(20000);  // Load threshold in milliseconds
+    public static final long DEFAULT_TICK_MILLIS = 1000;
+
+    private volatile AlertThresholds thresholds = new AlertThresholds();
+    private final AtomicBoolean evaluationPending = new AtomicBoolean();  // A threshold check is queued
+    private final AtomicInteger tickGeneration = new AtomicInteger();  // Bumped to end the current tick chain
+    private volatile boolean ticking;
+    private final LongSupplier clockMillis;
+
+    // Per-second outcomes, kept for two windows so the last window can be compared with the one before
+    private static final int HISTORY_SECONDS = 2 * AlertThresholds.MAX_WINDOW_SECONDS;
+    private final SlidingWindowCounter completedWindow;
+    private final SlidingWindowCounter failedWindow;
+    // Queue depth sampled by the evaluations, by second; only touched on the alert dispatcher thread
+    private final long[] depthSeconds = new long[HISTORY_SECONDS];
+    private final int[] depthValues = new int[HISTORY_SECONDS];
+
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder completedDurationMillis = new LongAdder();  // Estimated durations of completed tasks
+
+    // Histograms over every task, followed by one per priority
+    private final LatencyHistogram queueWait = new LatencyHistogram();  // Queued until first attempt started
+    private final LatencyHistogram execution = new LatencyHistogram();  // One attempt, start to outcome
+    private final LatencyHistogram retries = new LatencyHistogram();  // Attempts beyond the first, per final outcome
+    private final Map<TaskPriority, LatencyHistogram> queueWaitByPriority = histogramsByPriority();
+    private final Map<TaskPriority, LatencyHistogram> executionByPriority = histogramsByPriority();
+    private final Map<TaskPriority, LatencyHistogram> retriesByPriority = histogramsByPriority();
 
     public PerformanceMonitor(Server server, AlertSystem alertSystem) {
+        this(server, alertSystem, System::currentTimeMillis);
+    }
+
+    // Uses the given clock for the sliding windows, e.g. a fake one in tests
+    public PerformanceMonitor(Server server, AlertSystem alertSystem, LongSupplier clockMillis) {
         this.server = server;
         this.alertSystem = alertSystem;
+        this.clockMillis = clockMillis;
+        this.completedWindow = new SlidingWindowCounter(HISTORY_SECONDS, clockMillis);
+        this.failedWindow = new SlidingWindowCounter(HISTORY_SECONDS, clockMillis);
+        Arrays.fill(depthSeconds, Long.MIN_VALUE);
+    }
+
+    // Called by the server when a task completes
+    public void recordCompletion(Task task) {
+        completedCount.increment();
+        completedWindow.increment();
+        completedDurationMillis.add(task.getEstimatedDuration().toMillis());
+    }
+
+    // Called by the server when a task fails for good
+    public void recordFailure(Task task) {
+        failedCount.increment();
+        failedWindow.increment();
+    }
+
+    public AlertThresholds getThresholds() {
+        return thresholds;
+    }
+
+    public void setThresholds(AlertThresholds thresholds) {
+        this.thresholds = Objects.requireNonNull(thresholds, "Thresholds cannot be null");
+    }
+
+    // Evaluate the alert thresholds every tick until stopEvaluation(). The timer only holds the monitor weakly,
+    // so a server that is no longer used stops ticking once it is collected.
+    public synchronized void startEvaluation(long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (ticking) {
+            return;
+        }
+        ticking = true;
+        scheduleTick(new WeakReference<>(this), tickGeneration.incrementAndGet(), tickMillis);
+    }
+
+    public synchronized void stopEvaluation() {
+        ticking = false;
+        tickGeneration.incrementAndGet();
+    }
+
+    private static void scheduleTick(WeakReference<PerformanceMonitor> monitor, int generation, long tickMillis) {
+        TaskExecutors.timer().newTimeout(() -> {
+            PerformanceMonitor current = monitor.get();
+            if (current == null || current.tickGeneration.get() != generation) {
+                return;
+            }
+            current.monitorAndAlert();
+            scheduleTick(monitor, generation, tickMillis);
+        }, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Failure rate over the last window; 0 until the window holds enough outcomes to mean anything
+    public double getWindowedFailureRate() {
+        AlertThresholds limits = thresholds;
+        long failed = failedWindow.sum(limits.getWindowSeconds());
+        long total = completedWindow.sum(limits.getWindowSeconds()) + failed;
+        return total >= limits.getMinSamples() ? (double) failed / total : 0;
+    }
+
+    // Tasks completed per second over the last window
+    public double getThroughput() {
+        int window = thresholds.getWindowSeconds();
+        return (double) completedWindow.sum(window) / window;
+    }
+
+    // Called by the server when a task's first attempt starts
+    public void recordQueueWait(TaskPriority priority, long micros) {
+        queueWait.record(micros);
+        queueWaitByPriority.get(priority).record(micros);
+    }
+
+    // Called by the server when an attempt finishes, successfully or not
+    public void recordExecution(TaskPriority priority, long micros) {
+        execution.record(micros);
+        executionByPriority.get(priority).record(micros);
     }
 
-    // Calculate the average execution time for completed tasks
+    // Called by the server with a task's final outcome
+    public void recordRetries(TaskPriority priority, int retryCount) {
+        retries.record(retryCount);
+        retriesByPriority.get(priority).record(retryCount);
+    }
+
+    public LatencyHistogram getQueueWaitHistogram() {
+        return queueWait;
+    }
+
+    public LatencyHistogram getQueueWaitHistogram(TaskPriority priority) {
+        return queueWaitByPriority.get(priority);
+    }
+
+    public LatencyHistogram getExecutionHistogram() {
+        return execution;
+    }
+
+    public LatencyHistogram getExecutionHistogram(TaskPriority priority) {
+        return executionByPriority.get(priority);
+    }
+
+    public LatencyHistogram getRetryHistogram() {
+        return retries;
+    }
+
+    public LatencyHistogram getRetryHistogram(TaskPriority priority) {
+        return retriesByPriority.get(priority);
+    }
+
+    private static Map<TaskPriority, LatencyHistogram> histogramsByPriority() {
+        Map<TaskPriority, LatencyHistogram> histograms = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority priority : TaskPriority.values()) {
+            histograms.put(priority, new LatencyHistogram());
+        }
+        return histograms;
+    }
+
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    // Average measured execution time of an attempt, in milliseconds
     public double getAverageExecutionTime() {
-        List<Task> completedTasks = server.getCompletedTasks();
-        return completedTasks.stream()
-                .mapToLong(task -> task.getEstimatedDuration().getDuration().longValue())
-                .average()
-                .orElse(0);
+        return execution.getMean() / 1000.0;
     }
 
     // Calculate the success rate (ratio of completed tasks to total tasks)
     public double getSuccessRate() {
-        int totalTasks = server.getCompletedTasks().size() + server.getFailedTasks().size();
-        return totalTasks > 0 ? (double) server.getCompletedTasks().size() / totalTasks : 0;
+        long completed = completedCount.sum();
+        long totalTasks = completed + failedCount.sum();
+        return totalTasks > 0 ? (double) completed / totalTasks : 0;
     }
 
     // Calculate the failure rate (ratio of failed tasks to total tasks)
     public double getFailureRate() {
-        int totalTasks = server.getCompletedTasks().size() + server.getFailedTasks().size();
-        return totalTasks > 0 ? (double) server.getFailedTasks().size() / totalTasks : 0;
+        long failed = failedCount.sum();
+        long totalTasks = completedCount.sum() + failed;
+        return totalTasks > 0 ? (double) failed / totalTasks : 0;
     }
 
     // Calculate the total load processed by the server (sum of durations of all tasks)
-    public BigInteger getTotalLoad() {
-        return server.getCompletedTasks().stream()
-                .map(task -> task.getEstimatedDuration().getDuration())
-                .reduce(BigInteger.ZERO, BigInteger::add);
+    public long getTotalLoad() {
+        return completedDurationMillis.sum();
     }
 
-    // Monitor system performance and trigger alerts
+    // Evaluate the thresholds now, in addition to the tick. They are evaluated on the alert system's
+    // dispatcher thread; calls made while an evaluation is already queued are folded into it.
     public void monitorAndAlert() {
-        // Check if the task queue size exceeds the threshold
-        int taskQueueSize = server.getTasks().size();
-        alertSystem.checkForHighTaskQueue(taskQueueSize, TASK_QUEUE_THRESHOLD);
+        if (evaluationPending.compareAndSet(false, true) && !alertSystem.submitCheck(this::evaluateThresholds)) {
+            evaluationPending.set(false);  // Dropped; the next call tries again
+        }
+    }
 
-        // Check if the failure rate exceeds the threshold
-        double failureRate = getFailureRate();
-        alertSystem.checkForHighFailureRate(failureRate, FAILURE_RATE_THRESHOLD);
+    private void evaluateThresholds() {
+        evaluationPending.set(false);  // Before reading, so changes made from here on queue another evaluation
+
+        AlertThresholds limits = thresholds;
+        int window = limits.getWindowSeconds();
+
+        // Check if the task queue size, or its growth over the window, exceeds the threshold
+        int taskQueueSize = server.getQueuedTaskCount();
+        alertSystem.checkForHighTaskQueue(taskQueueSize, limits.getQueueSize());
+        alertSystem.checkForQueueGrowth(queueGrowthPerSecond(taskQueueSize, window), limits.getQueueGrowthPerSecond());
+
+        // Check if the failure rate in the window exceeds the threshold
+        alertSystem.checkForHighFailureRate(getWindowedFailureRate(), limits.getFailureRate());
+
+        // Check if failures jumped compared with the window before
+        long failed = failedWindow.sum(window);
+        long previousFailed = failedWindow.sum(window, window);
+        boolean surging = failed >= limits.getMinSamples() && failed > previousFailed * limits.getFailureSurgeFactor();
+        alertSystem.checkForFailureSurge(surging, failed, previousFailed, window);
+
+        // Check if the queued work exceeds the threshold
+        alertSystem.checkForHighTotalLoad(server.getTotalLoad(), limits.getTotalLoadMillis());
+    }
 
-        // Check if the total load exceeds the threshold
-        BigInteger totalLoad = getTotalLoad();
-        alertSystem.checkForHighTotalLoad(totalLoad.longValue(), TOTAL_LOAD_THRESHOLD.longValue());
+    // Record this second's queue depth and return the average growth per second since the oldest sample
+    // within the window; 0 if there is none yet
+    private double queueGrowthPerSecond(int depth, int window) {
+        long now = clockMillis.getAsLong() / 1000;
+        int slot = (int) Math.floorMod(now, (long) HISTORY_SECONDS);
+        depthSeconds[slot] = now;
+        depthValues[slot] = depth;
+        for (long second = now - window; second < now; second++) {
+            int past = (int) Math.floorMod(second, (long) HISTORY_SECONDS);
+            if (depthSeconds[past] == second) {
+                return (double) (depth - depthValues[past]) / (now - second);
+            }
+        }
+        return 0;
     }
 
     // Print all the collected statistics
@@ -72,5 +269,12 @@ public class PerformanceMonitor {
         System.out.println("Success Rate: " + (getSuccessRate() * 100) + "%");
         System.out.println("Failure Rate: " + (getFailureRate() * 100) + "%");
         System.out.println("Total Load Processed: " + getTotalLoad() + " ms");
+        System.out.println("Queue Wait (us): " + queueWait);
+        System.out.println("Execution (us): " + execution);
+        System.out.println("Retries: " + retries);
+        for (TaskPriority priority : TaskPriority.values()) {
+            System.out.println(priority + " Queue Wait (us): " + queueWaitByPriority.get(priority));
+            System.out.println(priority + " Execution (us): " + executionByPriority.get(priority));
+        }
     }
 }
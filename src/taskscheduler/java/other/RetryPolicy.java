@@ -1,22 +1,39 @@
 package taskscheduler.java.other;
 
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 public class RetryPolicy {
 
     private final int maxRetries;
     private final long baseDelay;  // Base delay in milliseconds
     private final boolean exponentialBackoff;
+    private final double jitterFactor;  // Fraction of the delay randomised in either direction (0 disables jitter)
+    private final int retryBudget;  // Retries a server may have waiting at once (0 means unlimited)
 
     public RetryPolicy(int maxRetries, long baseDelayInSeconds, boolean exponentialBackoff) {
+        this(maxRetries, baseDelayInSeconds, exponentialBackoff, 0.0, 0);
+    }
+
+    public RetryPolicy(int maxRetries, long baseDelayInSeconds, boolean exponentialBackoff, double jitterFactor, int retryBudget) {
         if (maxRetries < 0) {
             throw new IllegalArgumentException("Max retries must be non-negative");
         }
         if (baseDelayInSeconds < 0) {
             throw new IllegalArgumentException("Delay must be non-negative");
         }
+        if (jitterFactor < 0 || jitterFactor > 1) {
+            throw new IllegalArgumentException("Jitter factor must be between 0 and 1");
+        }
+        if (retryBudget < 0) {
+            throw new IllegalArgumentException("Retry budget must be non-negative");
+        }
 
         this.maxRetries = maxRetries;
-        this.baseDelay = baseDelayInSeconds * 1000;  // Convert seconds to milliseconds
+        this.baseDelay = TimeUnit.SECONDS.toMillis(baseDelayInSeconds);  // Convert seconds to milliseconds (saturating)
         this.exponentialBackoff = exponentialBackoff;
+        this.jitterFactor = jitterFactor;
+        this.retryBudget = retryBudget;
     }
 
     // Get the maximum number of retries
@@ -24,11 +41,38 @@ public class RetryPolicy {
         return maxRetries;
     }
 
+    // Maximum number of retries a single server may have waiting at once; 0 means unlimited
+    public int getRetryBudget() {
+        return retryBudget;
+    }
+
+    public double getJitterFactor() {
+        return jitterFactor;
+    }
+
     // Calculate the delay for the given retry attempt (1-based index)
     public long getDelay(int attempt) {
         if (attempt <= 0) {
             throw new IllegalArgumentException("Attempt number must be greater than 0");
         }
-        return exponentialBackoff ? baseDelay * (long) Math.pow(2, attempt - 1) : baseDelay;
+        if (!exponentialBackoff || baseDelay == 0) {
+            return baseDelay;
+        }
+        // baseDelay * 2^(attempt - 1) using shifts, saturating instead of overflowing
+        int shift = attempt - 1;
+        if (shift >= Long.numberOfLeadingZeros(baseDelay)) {
+            return Long.MAX_VALUE;
+        }
+        return baseDelay << shift;
+    }
+
+    // Delay for the given attempt, spread uniformly by +/- jitterFactor so retries of many tasks do not align
+    public long getJitteredDelay(int attempt) {
+        long delay = getDelay(attempt);
+        if (jitterFactor == 0 || delay == 0 || delay > Long.MAX_VALUE / 4) {
+            return delay;  // Nothing to spread, or so large that jitter is meaningless
+        }
+        long spread = (long) (delay * jitterFactor);
+        return delay - spread + ThreadLocalRandom.current().nextLong(2 * spread + 1);
     }
 }
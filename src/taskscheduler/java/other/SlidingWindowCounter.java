@@ -0,0 +1,79 @@
+package taskscheduler.java.other;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+// Event counts over the last few minutes, kept in a ring of per-second buckets. Adding is a couple of
+// atomic operations; a bucket is reset the first time it is reused for a new second. Sums only include
+// buckets stamped with a second inside the requested range, so idle periods read as zero.
+public class SlidingWindowCounter {
+
+    private final int length;  // Seconds of history
+    private final AtomicLongArray seconds;  // Second each bucket currently counts
+    private final AtomicLongArray counts;
+    private final LongSupplier clockMillis;
+
+    public SlidingWindowCounter(int seconds) {
+        this(seconds, System::currentTimeMillis);
+    }
+
+    // Uses the given clock, e.g. a fake one in tests
+    public SlidingWindowCounter(int seconds, LongSupplier clockMillis) {
+        if (seconds < 1) {
+            throw new IllegalArgumentException("Window must cover at least one second");
+        }
+        this.length = seconds;
+        this.seconds = new AtomicLongArray(seconds);
+        this.counts = new AtomicLongArray(seconds);
+        this.clockMillis = clockMillis;
+        for (int i = 0; i < seconds; i++) {
+            this.seconds.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    public void add(long delta) {
+        long second = clockMillis.getAsLong() / 1000;
+        int bucket = (int) Math.floorMod(second, (long) length);
+        if (seconds.get(bucket) != second) {
+            synchronized (this) {
+                if (seconds.get(bucket) != second) {
+                    counts.set(bucket, 0);  // Reset before publishing the new second
+                    seconds.set(bucket, second);
+                }
+            }
+        }
+        counts.addAndGet(bucket, delta);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    // Total over the last 'window' seconds, including the current one
+    public long sum(int window) {
+        return sum(window, 0);
+    }
+
+    // Total over 'window' seconds ending 'secondsAgo' seconds before the current one, e.g. sum(60, 60) is the
+    // minute before the last minute
+    public long sum(int window, int secondsAgo) {
+        if (window + secondsAgo > length) {
+            throw new IllegalArgumentException("Only " + length + " seconds of history are kept");
+        }
+        long newest = clockMillis.getAsLong() / 1000 - secondsAgo;
+        long oldest = newest - window + 1;
+        long total = 0;
+        for (int i = 0; i < length; i++) {
+            long second = seconds.get(i);
+            if (second >= oldest && second <= newest) {
+                total += counts.get(i);
+            }
+        }
+        return total;
+    }
+
+    // Seconds of history kept
+    public int getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,54 @@
+package taskscheduler.java.protocol;
+
+// Live load of a remote executor, piggybacked on every response it sends (heartbeat PONGs included)
+public class ExecutorTelemetry {
+
+    public static final ExecutorTelemetry IDLE = new ExecutorTelemetry(0, 0, 1, 0, 0);
+
+    private final int queueDepth;  // Tasks admitted and waiting for a worker
+    private final int runningTasks;
+    private final int workerCount;
+    private final int p50Millis;  // Recent execution-time percentiles
+    private final int p99Millis;
+
+    public ExecutorTelemetry(int queueDepth, int runningTasks, int workerCount, int p50Millis, int p99Millis) {
+        this.queueDepth = queueDepth;
+        this.runningTasks = runningTasks;
+        this.workerCount = workerCount;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getRunningTasks() {
+        return runningTasks;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    public int getP50Millis() {
+        return p50Millis;
+    }
+
+    public int getP99Millis() {
+        return p99Millis;
+    }
+
+    // Estimated milliseconds of work ahead of a newly sent task: everything queued or running,
+    // at the median execution time, spread over the executor's workers
+    public long estimatedBacklogMillis() {
+        long tasksAhead = (long) queueDepth + runningTasks;
+        return tasksAhead * Math.max(1, p50Millis) / Math.max(1, workerCount);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("queued=%d, running=%d, workers=%d, p50=%dms, p99=%dms",
+                queueDepth, runningTasks, workerCount, p50Millis, p99Millis);
+    }
+}
@@ -0,0 +1,36 @@
+package taskscheduler.java.protocol;
+
+import taskscheduler.java.tasks.Task;
+
+import java.util.List;
+
+// A request sent to the remote task executor over a long-lived connection.
+// The request ID is echoed in the response so replies can be matched out of order.
+public class RemoteRequest {
+
+    public enum Type {
+        TASK, BATCH, PING
+    }
+
+    private final long requestId;
+    private final Type type;
+    private final List<Task> tasks;  // One task for TASK, several for BATCH, none for PING
+
+    public RemoteRequest(long requestId, Type type, List<Task> tasks) {
+        this.requestId = requestId;
+        this.type = type;
+        this.tasks = tasks;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+}
@@ -0,0 +1,61 @@
+package taskscheduler.java.protocol;
+
+import java.util.List;
+
+// Reply from the remote task executor, carrying the ID of the request it answers.
+// Holds one status per task of the request, in request order, or a single PONG. Tasks the executor
+// is too loaded to admit are answered BUSY, with a hint of how long to wait before sending them again.
+public class RemoteResponse {
+
+    // Outcome of one task; the ordinal is the status code on the wire, so only append new values
+    public enum Status {
+        ACK, FAILED, PONG, BUSY
+    }
+
+    private final long requestId;
+    private final List<Status> statuses;
+    private final long retryAfterMillis;  // Only meaningful when some status is BUSY
+    private final ExecutorTelemetry telemetry;
+
+    public RemoteResponse(long requestId, Status status) {
+        this(requestId, List.of(status));
+    }
+
+    public RemoteResponse(long requestId, List<Status> statuses) {
+        this(requestId, statuses, 0);
+    }
+
+    public RemoteResponse(long requestId, List<Status> statuses, long retryAfterMillis) {
+        this(requestId, statuses, retryAfterMillis, ExecutorTelemetry.IDLE);
+    }
+
+    public RemoteResponse(long requestId, List<Status> statuses, long retryAfterMillis, ExecutorTelemetry telemetry) {
+        this.requestId = requestId;
+        this.statuses = statuses;
+        this.retryAfterMillis = retryAfterMillis;
+        this.telemetry = telemetry;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    // Status of the first (for TASK and PING, the only) task
+    public Status getStatus() {
+        return statuses.get(0);
+    }
+
+    public List<Status> getStatuses() {
+        return statuses;
+    }
+
+    // How long the executor asks clients to wait before resending BUSY tasks
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    // The executor's load when it sent this response
+    public ExecutorTelemetry getTelemetry() {
+        return telemetry;
+    }
+}
@@ -0,0 +1,20 @@
+package taskscheduler.java.protocol;
+
+import taskscheduler.java.tasks.Task;
+
+// Converts one kind of task to and from its wire form. The type key names the codec on the wire,
+// so the executor only needs a codec registered under the same key, not the client's class.
+public interface TaskCodec {
+
+    // Key written with every task this codec encodes
+    String getTypeKey();
+
+    // Task class this codec encodes
+    Class<? extends Task> getTaskType();
+
+    // Bytes beyond the common task properties; empty if the task has none
+    byte[] encodePayload(Task task);
+
+    // Rebuild a task from its descriptor
+    Task decode(TaskDescriptor descriptor);
+}
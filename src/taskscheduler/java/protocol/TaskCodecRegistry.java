@@ -0,0 +1,107 @@
+package taskscheduler.java.protocol;
+
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.tasks.DependentTask;
+import taskscheduler.java.tasks.PriorityTask;
+import taskscheduler.java.tasks.SimpleTask;
+import taskscheduler.java.tasks.Task;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Task codecs known to a process, looked up by type key when decoding and by task class when encoding.
+// The default registry knows the built-in task types; applications register codecs for their own.
+public class TaskCodecRegistry {
+
+    private static final byte[] NO_PAYLOAD = new byte[0];
+    private static final TaskCodecRegistry DEFAULT = withBuiltInCodecs();
+
+    private final Map<String, TaskCodec> byKey = new ConcurrentHashMap<>();
+    private final Map<Class<?>, TaskCodec> byType = new ConcurrentHashMap<>();
+
+    // The process-wide registry used by connections and the executor
+    public static TaskCodecRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // A registry holding codecs for SimpleTask, PriorityTask and DependentTask
+    public static TaskCodecRegistry withBuiltInCodecs() {
+        TaskCodecRegistry registry = new TaskCodecRegistry();
+        registry.register(new PropertiesOnlyCodec("simple", SimpleTask.class) {
+            @Override
+            public Task decode(TaskDescriptor descriptor) {
+                SimpleTask task = new SimpleTask(Duration.ofMillis(descriptor.getDurationMillis()));
+                task.setPriority(descriptor.getPriority());
+                return restore(task, descriptor);
+            }
+        });
+        registry.register(new PropertiesOnlyCodec("priority", PriorityTask.class) {
+            @Override
+            public Task decode(TaskDescriptor descriptor) {
+                return restore(new PriorityTask(Duration.ofMillis(descriptor.getDurationMillis()), descriptor.getPriority()), descriptor);
+            }
+        });
+        registry.register(new PropertiesOnlyCodec("dependent", DependentTask.class) {
+            @Override
+            public Task decode(TaskDescriptor descriptor) {
+                return restore(new DependentTask(Duration.ofMillis(descriptor.getDurationMillis()), descriptor.getPriority(),
+                        descriptor.getDependencies()), descriptor);
+            }
+        });
+        return registry;
+    }
+
+    // Register a codec, replacing any codec with the same key or task class
+    public void register(TaskCodec codec) {
+        byKey.put(codec.getTypeKey(), codec);
+        byType.put(codec.getTaskType(), codec);
+    }
+
+    // Codec for a type key read from the wire, or null if none is registered
+    public TaskCodec forKey(String typeKey) {
+        return byKey.get(typeKey);
+    }
+
+    // Codec for a task, matching its class first and then its superclasses
+    public TaskCodec forTask(Task task) {
+        for (Class<?> type = task.getClass(); type != null; type = type.getSuperclass()) {
+            TaskCodec codec = byType.get(type);
+            if (codec != null) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("No task codec registered for " + task.getClass().getName());
+    }
+
+    // Base for built-in tasks whose state is entirely in the common properties
+    private abstract static class PropertiesOnlyCodec implements TaskCodec {
+        private final String typeKey;
+        private final Class<? extends Task> taskType;
+
+        private PropertiesOnlyCodec(String typeKey, Class<? extends Task> taskType) {
+            this.typeKey = typeKey;
+            this.taskType = taskType;
+        }
+
+        @Override
+        public String getTypeKey() {
+            return typeKey;
+        }
+
+        @Override
+        public Class<? extends Task> getTaskType() {
+            return taskType;
+        }
+
+        @Override
+        public byte[] encodePayload(Task task) {
+            return NO_PAYLOAD;
+        }
+
+        static Task restore(SimpleTask task, TaskDescriptor descriptor) {
+            task.setId(descriptor.getId());
+            task.setTimeout(descriptor.getTimeout());
+            return task;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package taskscheduler.java.protocol;
+
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.tasks.Task;
+
+import java.util.Set;
+
+// The fields of a task as they travel on the wire: the common Task properties, the key of the codec
+// that rebuilds it, and a payload only that codec understands
+public class TaskDescriptor {
+
+    private final String id;
+    private final TaskPriority priority;
+    private final long durationMillis;
+    private final long timeout;
+    private final Set<String> dependencies;
+    private final String typeKey;
+    private final byte[] payload;
+
+    public TaskDescriptor(String id, TaskPriority priority, long durationMillis, long timeout,
+                          Set<String> dependencies, String typeKey, byte[] payload) {
+        this.id = id;
+        this.priority = priority;
+        this.durationMillis = durationMillis;
+        this.timeout = timeout;
+        this.dependencies = dependencies;
+        this.typeKey = typeKey;
+        this.payload = payload;
+    }
+
+    // Describe a task with the common properties and the given codec output
+    public static TaskDescriptor of(Task task, String typeKey, byte[] payload) {
+        return new TaskDescriptor(task.getId(), task.getPriority(), task.getEstimatedDuration().toMillis(),
+                task.getTimeout(), task.getDependencies(), typeKey, payload);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    public String getTypeKey() {
+        return typeKey;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,371 @@
+package taskscheduler.java.protocol;
+
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.tasks.Task;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Versioned, length-prefixed binary framing for requests and responses. Every frame is
+//
+//   int   length      bytes that follow this field
+//   short magic       0x5453 ("TS")
+//   byte  version
+//   byte  frame type  TASK, BATCH, PING or RESPONSE
+//   byte  flags       FLAG_COMPRESSED if the body is deflated
+//   long  request ID
+//   body              tasks for TASK/BATCH; for RESPONSE one status code per task, a retry-after hint and the
+//                     executor's telemetry; empty for PING
+//
+// A task is its ID, priority, estimated duration, timeout, dependency IDs, codec type key and opaque
+// codec payload. Bodies above the compression threshold are deflated when that makes them smaller.
+//
+// A codec keeps its buffers between frames, so it is not thread-safe. Encoding and decoding use separate
+// state, so one thread may encode while another decodes.
+public class WireCodec {
+
+    private static final Logger logger = Logger.getLogger(WireCodec.class.getName());
+
+    public static final short MAGIC = 0x5453;
+    public static final byte VERSION = 3;  // 2 added BUSY and the retry-after hint, 3 executor telemetry
+    public static final int HEADER_LENGTH = 13;  // Magic through request ID
+    public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    public static final byte TYPE_TASK = 1;
+    public static final byte TYPE_BATCH = 2;
+    public static final byte TYPE_PING = 3;
+    public static final byte TYPE_RESPONSE = 4;
+
+    public static final byte FLAG_COMPRESSED = 1;
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+    private static final RemoteResponse.Status[] STATUSES = RemoteResponse.Status.values();
+
+    private final TaskCodecRegistry codecs;
+    private final int compressionThreshold;
+
+    // Encoding state
+    private ByteBuffer body = ByteBuffer.allocate(512);
+    private ByteBuffer frame = ByteBuffer.allocate(512);
+    private byte[] deflated = new byte[0];
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    // Decoding state
+    private ByteBuffer incoming = ByteBuffer.allocate(0);  // Only used by readFrame(), so grown on first use
+    private ByteBuffer inflated = ByteBuffer.allocate(0);
+    private final Inflater inflater = new Inflater();
+
+    public WireCodec() {
+        this(TaskCodecRegistry.getDefault(), DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    public WireCodec(TaskCodecRegistry codecs, int compressionThreshold) {
+        this.codecs = codecs;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    // Encode a request into a complete frame, length prefix included. The returned buffer is ready to be
+    // written and stays valid until the next call to encode.
+    public ByteBuffer encode(RemoteRequest request) {
+        body.clear();
+        byte type;
+        switch (request.getType()) {
+            case PING -> type = TYPE_PING;
+            case TASK -> type = TYPE_TASK;
+            default -> type = TYPE_BATCH;
+        }
+        if (type != TYPE_PING) {
+            ensureBody(4);
+            body.putInt(request.getTasks().size());
+            for (Task task : request.getTasks()) {
+                TaskCodec codec = codecs.forTask(task);
+                putTask(TaskDescriptor.of(task, codec.getTypeKey(), codec.encodePayload(task)));
+            }
+        }
+        return frame(type, request.getRequestId());
+    }
+
+    // Encode a response into a complete frame, length prefix included; valid until the next call to encode
+    public ByteBuffer encode(RemoteResponse response) {
+        body.clear();
+        ensureBody(4 + response.getStatuses().size() + 8);
+        body.putInt(response.getStatuses().size());
+        for (RemoteResponse.Status status : response.getStatuses()) {
+            body.put((byte) status.ordinal());
+        }
+        body.putLong(response.getRetryAfterMillis());
+        ExecutorTelemetry telemetry = response.getTelemetry();
+        ensureBody(5 * 4);
+        body.putInt(telemetry.getQueueDepth()).putInt(telemetry.getRunningTasks()).putInt(telemetry.getWorkerCount())
+                .putInt(telemetry.getP50Millis()).putInt(telemetry.getP99Millis());
+        return frame(TYPE_RESPONSE, response.getRequestId());
+    }
+
+    private ByteBuffer frame(byte type, long requestId) {
+        body.flip();
+        byte flags = 0;
+        ByteBuffer payload = body;
+        if (body.remaining() > compressionThreshold) {
+            ByteBuffer compressed = deflate(body);
+            if (compressed != null) {
+                flags = FLAG_COMPRESSED;
+                payload = compressed;
+            }
+        }
+
+        int length = HEADER_LENGTH + payload.remaining();
+        if (frame.capacity() < 4 + length) {
+            frame = ByteBuffer.allocate(Math.max(4 + length, frame.capacity() * 2));
+        }
+        frame.clear();
+        frame.putInt(length).putShort(MAGIC).put(VERSION).put(type).put(flags).putLong(requestId).put(payload);
+        frame.flip();
+        return frame;
+    }
+
+    // Deflate the body, prefixed with its original length; null if that does not make it smaller
+    private ByteBuffer deflate(ByteBuffer source) {
+        int original = source.remaining();
+        if (original <= 4) { return null; }  // No room to shrink once the length prefix is added
+        if (deflated.length < original) {
+            deflated = new byte[original];
+        }
+        deflater.reset();
+        deflater.setInput(source.array(), source.position(), original);
+        deflater.finish();
+        int size = deflater.deflate(deflated, 4, original - 4);
+        if (!deflater.finished()) {
+            return null;  // Did not shrink
+        }
+        ByteBuffer.wrap(deflated).putInt(0, original);
+        return ByteBuffer.wrap(deflated, 0, size + 4);
+    }
+
+    private void putTask(TaskDescriptor task) {
+        putString(task.getId());
+        ensureBody(1 + 8 + 8 + 4);
+        body.put((byte) task.getPriority().ordinal());
+        body.putLong(task.getDurationMillis());
+        body.putLong(task.getTimeout());
+        body.putInt(task.getDependencies().size());
+        for (String dependency : task.getDependencies()) {
+            putString(dependency);
+        }
+        putString(task.getTypeKey());
+        ensureBody(4 + task.getPayload().length);
+        body.putInt(task.getPayload().length);
+        body.put(task.getPayload());
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureBody(4 + bytes.length);
+        body.putInt(bytes.length);
+        body.put(bytes);
+    }
+
+    // Grow the body buffer, keeping what has been written, so it holds at least the given number of bytes more
+    private void ensureBody(int needed) {
+        if (body.remaining() < needed) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(body.capacity() * 2, body.position() + needed));
+            body.flip();
+            grown.put(body);
+            body = grown;
+        }
+    }
+
+    // Read one frame from a blocking stream into the reusable read buffer. Returns the frame without its length
+    // prefix, or null if the stream ended cleanly between frames.
+    public ByteBuffer readFrame(InputStream in) throws IOException {
+        int b0 = in.read();
+        if (b0 < 0) {
+            return null;
+        }
+        byte[] prefix = new byte[4];
+        prefix[0] = (byte) b0;
+        readFully(in, prefix, 1, 3);
+        int length = checkLength(ByteBuffer.wrap(prefix).getInt());
+
+        if (incoming.capacity() < length) {
+            incoming = ByteBuffer.allocate(Math.max(length, incoming.capacity() * 2));
+        }
+        incoming.clear().limit(length);
+        readFully(in, incoming.array(), 0, length);
+        return incoming;
+    }
+
+    // Validate a length prefix read from the wire
+    public static int checkLength(int length) throws ProtocolException {
+        if (length < HEADER_LENGTH || length > MAX_FRAME_LENGTH) {
+            throw new ProtocolException("Invalid frame length " + length);
+        }
+        return length;
+    }
+
+    private static void readFully(InputStream in, byte[] into, int offset, int length) throws IOException {
+        while (length > 0) {
+            int read = in.read(into, offset, length);
+            if (read < 0) {
+                throw new EOFException("Stream ended inside a frame");
+            }
+            offset += read;
+            length -= read;
+        }
+    }
+
+    // Write a frame produced by encode to a blocking stream
+    public static void writeFrame(OutputStream out, ByteBuffer frame) throws IOException {
+        out.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+        out.flush();
+    }
+
+    // Decode a request frame (without its length prefix). Tasks whose type key has no registered codec are
+    // returned as null entries, so the executor can fail them individually.
+    public RemoteRequest decodeRequest(ByteBuffer frame) throws ProtocolException {
+        byte type = readHeader(frame);
+        byte flags = frame.get();
+        long requestId = frame.getLong();
+        if (type == TYPE_PING) {
+            return new RemoteRequest(requestId, RemoteRequest.Type.PING, List.of());
+        }
+        if (type != TYPE_TASK && type != TYPE_BATCH) {
+            throw new ProtocolException("Unexpected frame type " + type + " for a request");
+        }
+        ByteBuffer in = body(frame, flags);
+        try {
+            int count = in.getInt();
+            checkCount(count, in);
+            List<Task> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tasks.add(getTask(in));
+            }
+            return new RemoteRequest(requestId, type == TYPE_TASK ? RemoteRequest.Type.TASK : RemoteRequest.Type.BATCH, tasks);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new ProtocolException("Malformed request " + requestId + ": " + e);
+        }
+    }
+
+    // Decode a response frame (without its length prefix)
+    public RemoteResponse decodeResponse(ByteBuffer frame) throws ProtocolException {
+        byte type = readHeader(frame);
+        byte flags = frame.get();
+        long requestId = frame.getLong();
+        if (type != TYPE_RESPONSE) {
+            throw new ProtocolException("Unexpected frame type " + type + " for a response");
+        }
+        ByteBuffer in = body(frame, flags);
+        try {
+            int count = in.getInt();
+            checkCount(count, in);
+            List<RemoteResponse.Status> statuses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int code = in.get();
+                if (code < 0 || code >= STATUSES.length) {
+                    throw new ProtocolException("Unknown status code " + code + " in response " + requestId);
+                }
+                statuses.add(STATUSES[code]);
+            }
+            long retryAfterMillis = in.getLong();
+            ExecutorTelemetry telemetry = new ExecutorTelemetry(in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt());
+            return new RemoteResponse(requestId, statuses, retryAfterMillis, telemetry);
+        } catch (BufferUnderflowException e) {
+            throw new ProtocolException("Malformed response " + requestId);
+        }
+    }
+
+    private static byte readHeader(ByteBuffer frame) throws ProtocolException {
+        if (frame.remaining() < HEADER_LENGTH || frame.getShort() != MAGIC) {
+            throw new ProtocolException("Not a task scheduler frame");
+        }
+        byte version = frame.get();
+        if (version != VERSION) {
+            throw new ProtocolException("Unsupported protocol version " + version);
+        }
+        return frame.get();
+    }
+
+    // The frame's body, inflated into the reusable buffer if it was compressed
+    private ByteBuffer body(ByteBuffer frame, byte flags) throws ProtocolException {
+        if ((flags & FLAG_COMPRESSED) == 0) {
+            return frame;
+        }
+        int original = frame.getInt();
+        if (original < 0 || original > MAX_FRAME_LENGTH) {
+            throw new ProtocolException("Invalid uncompressed length " + original);
+        }
+        if (inflated.capacity() < original) {
+            inflated = ByteBuffer.allocate(original);
+        }
+        inflater.reset();
+        inflater.setInput(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+        try {
+            int size = inflater.inflate(inflated.array(), 0, original);
+            if (size != original || !inflater.finished()) {
+                throw new ProtocolException("Compressed body does not match its declared length");
+            }
+        } catch (DataFormatException e) {
+            throw new ProtocolException("Corrupt compressed body: " + e.getMessage());
+        }
+        inflated.clear().limit(original);
+        return inflated;
+    }
+
+    private Task getTask(ByteBuffer in) throws ProtocolException {
+        String id = getString(in);
+        int priority = in.get();
+        if (priority < 0 || priority >= PRIORITIES.length) {
+            throw new ProtocolException("Unknown priority " + priority + " for task " + id);
+        }
+        long durationMillis = in.getLong();
+        long timeout = in.getLong();
+        int dependencyCount = in.getInt();
+        checkCount(dependencyCount, in);
+        Set<String> dependencies = new HashSet<>();
+        for (int i = 0; i < dependencyCount; i++) {
+            dependencies.add(getString(in));
+        }
+        String typeKey = getString(in);
+        int payloadLength = in.getInt();
+        checkCount(payloadLength, in);
+        byte[] payload = new byte[payloadLength];
+        in.get(payload);
+
+        TaskCodec codec = codecs.forKey(typeKey);
+        if (codec == null) {
+            logger.log(Level.WARNING, "No task codec registered for type {0}; task {1} cannot run here.", new Object[]{typeKey, id});
+            return null;
+        }
+        return codec.decode(new TaskDescriptor(id, PRIORITIES[priority], durationMillis, timeout, dependencies, typeKey, payload));
+    }
+
+    private static String getString(ByteBuffer in) throws ProtocolException {
+        int length = in.getInt();
+        checkCount(length, in);
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    // A count read from the wire can never exceed the bytes left, since every element takes at least one
+    private static void checkCount(int count, ByteBuffer in) throws ProtocolException {
+        if (count < 0 || count > in.remaining()) {
+            throw new ProtocolException("Invalid element count " + count);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package taskscheduler.java.scheduling;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Cluster-wide record of which tasks are pending and which have completed, shared by every server of a
+// scheduler. Servers publish outcomes here and subscribe to dependencies that live on other servers;
+// subscribers are called back on the thread that records the outcome, so dependents are released, or
+// skipped if the dependency failed or was cancelled, without polling.
+// Callers awaiting a single task get a future that completes with its ID, fails, or is cancelled.
+// Outcomes are kept for the most recent tasks only: once the record is full the oldest outcome is forgotten,
+// and a task depending on it is treated like one depending on an unknown task.
+public class CompletionRegistry {
+
+    private static final Logger logger = Logger.getLogger(CompletionRegistry.class.getName());
+
+    public static final int DEFAULT_RETAINED_OUTCOMES = 100_000;
+
+    // Final outcome of a task: completed, or failed with a cause (a CancellationException if cancelled)
+    private static final class Outcome {
+        private static final Outcome COMPLETED = new Outcome(null);
+
+        private final Throwable failure;
+
+        private Outcome(Throwable failure) {
+            this.failure = failure;
+        }
+    }
+
+    private final int retainedOutcomes;
+    private final Set<String> pendingTaskIds = ConcurrentHashMap.newKeySet();
+    // Outcomes by task ID, oldest first, so a future or subscriber requested afterwards still settles
+    private final LinkedHashMap<String, Outcome> outcomes = new LinkedHashMap<>();
+    private long forgottenOutcomes;
+    private final Map<String, List<BiConsumer<String, Throwable>>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<String>> futures = new ConcurrentHashMap<>();  // Only for awaited tasks
+
+    public CompletionRegistry() {
+        this(DEFAULT_RETAINED_OUTCOMES);
+    }
+
+    public CompletionRegistry(int retainedOutcomes) {
+        if (retainedOutcomes < 1) {
+            throw new IllegalArgumentException("Retained outcomes must be at least 1");
+        }
+        this.retainedOutcomes = retainedOutcomes;
+    }
+
+    // Record that a task has been placed on some server and will eventually run. A task scheduled again after
+    // failing or being cancelled, e.g. replayed from a dead-letter queue, loses its earlier outcome.
+    public void registerPending(String taskId) {
+        Objects.requireNonNull(taskId, "Task ID cannot be null");
+        synchronized (outcomes) {
+            Outcome outcome = outcomes.get(taskId);
+            if (outcome == Outcome.COMPLETED) {
+                return;
+            }
+            if (outcome != null) {
+                outcomes.remove(taskId);
+            }
+            pendingTaskIds.add(taskId);
+        }
+    }
+
+    // Undo registerPending() for a task no server accepted after all
+    public void unregisterPending(String taskId) {
+        Objects.requireNonNull(taskId, "Task ID cannot be null");
+        pendingTaskIds.remove(taskId);
+    }
+
+    // Record a completion and notify everyone waiting on it
+    public void markCompleted(String taskId) {
+        Objects.requireNonNull(taskId, "Task ID cannot be null");
+        // Publish the completion before collecting subscribers; subscribe() checks it under the same key
+        record(taskId, Outcome.COMPLETED);
+        pendingTaskIds.remove(taskId);
+        CompletableFuture<String> future = futures.remove(taskId);
+        if (future != null) {
+            future.complete(taskId);
+        }
+        notifySubscribers(taskId, null);
+    }
+
+    // Record that a task failed for good and fail its future. It is no longer pending; replaying it from a
+    // dead-letter queue registers it again.
+    public void markFailed(String taskId, Throwable cause) {
+        Objects.requireNonNull(taskId, "Task ID cannot be null");
+        Objects.requireNonNull(cause, "Cause cannot be null");
+        record(taskId, new Outcome(cause));  // Published before the future is removed, as in markCompleted()
+        pendingTaskIds.remove(taskId);
+        CompletableFuture<String> future = futures.remove(taskId);
+        if (future != null) {
+            future.completeExceptionally(cause);
+        }
+        notifySubscribers(taskId, cause);
+    }
+
+    // Record that a task was withdrawn before completing; it is no longer pending anywhere
+    public void markCancelled(String taskId) {
+        Objects.requireNonNull(taskId, "Task ID cannot be null");
+        CancellationException cancelled = new CancellationException("Task " + taskId + " was cancelled");
+        record(taskId, new Outcome(cancelled));
+        pendingTaskIds.remove(taskId);
+        CompletableFuture<String> future = futures.remove(taskId);
+        if (future != null) {
+            future.cancel(false);
+        }
+        notifySubscribers(taskId, cancelled);
+    }
+
+    // Store a task's outcome, forgetting the oldest one if the record is full
+    private void record(String taskId, Outcome outcome) {
+        synchronized (outcomes) {
+            outcomes.remove(taskId);  // Re-recording moves the task to the back
+            outcomes.put(taskId, outcome);
+            if (outcomes.size() > retainedOutcomes) {
+                Iterator<String> oldest = outcomes.keySet().iterator();
+                oldest.next();
+                oldest.remove();
+                if (forgottenOutcomes++ == 0) {  // Expected from now on, so reported once
+                    logger.log(Level.WARNING, "Completion registry holds {0} outcomes; forgetting the oldest from now on.", retainedOutcomes);
+                }
+            }
+        }
+    }
+
+    private Outcome outcome(String taskId) {
+        synchronized (outcomes) {
+            return outcomes.get(taskId);
+        }
+    }
+
+    // Call and forget the subscribers of a task that has reached an outcome; a null failure means it completed
+    private void notifySubscribers(String taskId, Throwable failure) {
+        List<BiConsumer<String, Throwable>> waiting = subscribers.remove(taskId);
+        if (waiting != null) {
+            for (BiConsumer<String, Throwable> subscriber : waiting) {
+                try {
+                    subscriber.accept(taskId, failure);
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Completion subscriber for task {0} failed: {1}", new Object[]{taskId, e.getMessage()});
+                }
+            }
+        }
+    }
+
+    // Future completed with the task's ID once it completes, failed or cancelled with its final outcome.
+    // Settled immediately if the task has already reached one.
+    public CompletableFuture<String> completion(String taskId) {
+        Objects.requireNonNull(taskId, "Task ID cannot be null");
+        CompletableFuture<String> future = futures.computeIfAbsent(taskId, id -> new CompletableFuture<>());
+        // The mark methods publish the outcome before removing the future, so one of the two sides always settles it
+        Outcome outcome = outcome(taskId);
+        if (outcome != null) {
+            futures.remove(taskId, future);
+            if (outcome == Outcome.COMPLETED) {
+                future.complete(taskId);
+            } else if (outcome.failure instanceof CancellationException) {
+                future.cancel(false);
+            } else {
+                future.completeExceptionally(outcome.failure);
+            }
+        }
+        return future;
+    }
+
+    // Call the subscriber once the task reaches an outcome, immediately if it already has. It receives the task
+    // ID and null if the task completed, its failure if it failed, or a CancellationException if it was cancelled.
+    public void subscribe(String taskId, BiConsumer<String, Throwable> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+        Outcome[] settled = new Outcome[1];
+        subscribers.compute(taskId, (id, waiting) -> {
+            // The mark methods publish the outcome before removing the subscribers, as for futures
+            settled[0] = outcome(id);
+            if (settled[0] != null) {
+                return waiting;
+            }
+            List<BiConsumer<String, Throwable>> updated = waiting != null ? waiting : new ArrayList<>();
+            updated.add(subscriber);
+            return updated;
+        });
+        if (settled[0] != null) {
+            subscriber.accept(taskId, settled[0].failure);
+        }
+    }
+
+    public boolean isCompleted(String taskId) {
+        return outcome(taskId) == Outcome.COMPLETED;
+    }
+
+    // Outcomes forgotten because the record was full
+    public long getForgottenOutcomeCount() {
+        synchronized (outcomes) {
+            return forgottenOutcomes;
+        }
+    }
+
+    // Whether the task is known to be queued somewhere and not yet completed
+    public boolean isPending(String taskId) {
+        return pendingTaskIds.contains(taskId);
+    }
+}
@@ -0,0 +1,136 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Bounded store for tasks that failed for good, kept out of the server queue so they are not run again on
+// every pass. Each entry records why the task failed and how many attempts it used. Once full, the oldest
+// entry is dropped to make room. Entries are keyed by task ID, so a task failing again replaces its entry.
+public class DeadLetterQueue {
+
+    private static final Logger logger = Logger.getLogger(DeadLetterQueue.class.getName());
+
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    // One failed task with the reason it failed
+    public static final class DeadLetter {
+        private final Task task;
+        private final String reason;
+        private final int attempts;
+        private final long failedAtMillis;
+
+        private DeadLetter(Task task, String reason, int attempts, long failedAtMillis) {
+            this.task = task;
+            this.reason = reason;
+            this.attempts = attempts;
+            this.failedAtMillis = failedAtMillis;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        // Attempts made before the task was given up on; 0 if it never ran, e.g. a dependency failed
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public long getFailedAtMillis() {
+            return failedAtMillis;
+        }
+
+        @Override
+        public String toString() {
+            return task.getId() + " (" + attempts + " attempts): " + reason;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<String, DeadLetter> entries = new LinkedHashMap<>();  // Oldest first
+    private long evicted;
+
+    public DeadLetterQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DeadLetterQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Dead-letter capacity must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    // Record a failed task, dropping the oldest entry if the queue is full
+    public synchronized void add(Task task, String reason, int attempts) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        entries.remove(task.getId());  // Re-adding moves the task to the back
+        entries.put(task.getId(), new DeadLetter(task, reason, attempts, System.currentTimeMillis()));
+        if (entries.size() > capacity) {
+            Iterator<DeadLetter> oldest = entries.values().iterator();
+            DeadLetter dropped = oldest.next();
+            oldest.remove();
+            evicted++;
+            logger.log(Level.WARNING, "Dead-letter queue full; dropped task {0}.", dropped.getTask().getId());
+        }
+    }
+
+    // Snapshot of the entries, oldest first
+    public synchronized List<DeadLetter> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    public synchronized List<Task> getTasks() {
+        List<Task> tasks = new ArrayList<>(entries.size());
+        for (DeadLetter entry : entries.values()) {
+            tasks.add(entry.task);
+        }
+        return tasks;
+    }
+
+    public synchronized DeadLetter get(String taskId) {
+        return entries.get(taskId);
+    }
+
+    // Remove and return an entry, e.g. to replay it; null if there is none
+    public synchronized DeadLetter remove(String taskId) {
+        return entries.remove(taskId);
+    }
+
+    // Remove and return every entry
+    public synchronized List<DeadLetter> removeAll() {
+        List<DeadLetter> all = new ArrayList<>(entries.values());
+        entries.clear();
+        return all;
+    }
+
+    // Discard every entry; returns how many there were
+    public synchronized int purge() {
+        int purged = entries.size();
+        entries.clear();
+        return purged;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Entries dropped because the queue was full
+    public synchronized long getEvictedCount() {
+        return evicted;
+    }
+}
@@ -0,0 +1,403 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.tasks.Task;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+// Dependency DAG for one execution pass over a batch of tasks.
+// Dependencies already completed before the pass are satisfied up front; dependencies inside the batch
+// become edges, and each task becomes ready once its in-degree drops to zero. Ready tasks are handed out
+// in priority order, so a whole chain can finish in a single pass. Dependencies still pending on another
+// server become external edges released through externalDependencyCompleted(), or skipped through
+// externalDependencyFailed(); tasks still waiting on them
+// when the local work runs out are left for a later pass. Tasks that can never run in this pass
+// (missing dependencies, cycles, or a failed dependency) are reported instead of being executed.
+// An open graph backs continuous dispatch: it accepts tasks through add() while workers take from it, and
+// workers wait for new tasks instead of finishing once the current ones are resolved.
+public class DependencyGraph {
+
+    // Same ordering as the server queue: HIGH -> MEDIUM -> LOW
+    public static final Comparator<Task> PRIORITY_ORDER =
+            (t1, t2) -> t2.getPriority().ordinal() - t1.getPriority().ordinal();
+
+    private static final class Node {
+        private final Task task;
+        private final List<Node> dependents = new ArrayList<>();
+        private int inDegree;
+        private boolean resolved;  // Completed, failed or skipped
+
+        private Node(Task task) {
+            this.task = task;
+        }
+    }
+
+    private final Map<Task, Node> nodes = new IdentityHashMap<>();  // Unresolved tasks, plus those the constructor rejected
+    private final Map<String, Node> byId = new HashMap<>();
+    private final PriorityQueue<Task> ready = new PriorityQueue<>(PRIORITY_ORDER);
+    private final List<Task> unresolvedTasks = new ArrayList<>();  // Depend on a task outside the batch
+    private final List<Task> cyclicTasks = new ArrayList<>();  // Part of, or downstream of, a dependency cycle
+    private final List<Task> skippedTasks = new ArrayList<>();  // A dependency failed during the pass
+    private final Map<String, List<Node>> externalWaiters = new HashMap<>();  // Pending dependency ID -> waiting tasks
+    private int remaining;  // Runnable tasks not yet resolved
+    private int running;  // Tasks handed out and not yet reported back
+    private boolean closed;  // Set once local work has run out; later releases are left for the next pass
+    private boolean accepting;  // Open graph still taking tasks; workers wait for them
+    private boolean stopped;  // No more tasks are handed out, even ready ones
+
+    // Build the graph; isCompleted answers whether a dependency outside the batch has already completed
+    public DependencyGraph(Collection<? extends Task> tasks, Predicate<String> isCompleted) {
+        this(tasks, isCompleted, dependencyId -> false);
+    }
+
+    // Build the graph; isPending answers whether a dependency outside the batch is still queued elsewhere,
+    // in which case the task waits for it instead of being reported as unresolved
+    public DependencyGraph(Collection<? extends Task> tasks, Predicate<String> isCompleted, Predicate<String> isPending) {
+        this(tasks, isCompleted, isPending, false);
+    }
+
+    // Build the graph; an open graph keeps taking tasks through add() until stopAccepting() or stop()
+    public DependencyGraph(Collection<? extends Task> tasks, Predicate<String> isCompleted, Predicate<String> isPending, boolean open) {
+        this.accepting = open;
+        for (Task task : tasks) {
+            Node node = new Node(task);
+            nodes.put(task, node);
+            byId.put(task.getId(), node);
+        }
+
+        // Wire edges; a dependency that is neither completed nor in the batch blocks the task
+        List<Node> blocked = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            for (String dependencyId : node.task.getDependencies()) {
+                Node dependency = byId.get(dependencyId);
+                if (dependency != null) {
+                    dependency.dependents.add(node);
+                    node.inDegree++;
+                } else if (isCompleted.test(dependencyId)) {
+                    continue;
+                } else if (isPending.test(dependencyId)) {
+                    externalWaiters.computeIfAbsent(dependencyId, id -> new ArrayList<>()).add(node);
+                    node.inDegree++;
+                } else {
+                    if (!node.resolved) {
+                        node.resolved = true;
+                        blocked.add(node);
+                    }
+                }
+            }
+        }
+        for (Node node : blocked) {
+            unresolvedTasks.add(node.task);
+            resolveDependents(node, unresolvedTasks);
+        }
+
+        // Kahn's algorithm on a copy of the in-degrees finds the tasks that can be ordered at all;
+        // external edges are treated as satisfiable so only cycles inside the batch are reported
+        Map<Node, Integer> degrees = new IdentityHashMap<>();
+        for (Node node : nodes.values()) {
+            if (!node.resolved) {
+                degrees.put(node, node.inDegree);
+            }
+        }
+        for (List<Node> waiters : externalWaiters.values()) {
+            for (Node node : waiters) {
+                degrees.computeIfPresent(node, (key, degree) -> degree - 1);
+            }
+        }
+        Deque<Node> queue = new ArrayDeque<>();
+        degrees.forEach((node, degree) -> {
+            if (degree == 0) {
+                queue.add(node);
+            }
+        });
+        int ordered = 0;
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            ordered++;
+            for (Node dependent : node.dependents) {
+                if (!dependent.resolved && degrees.merge(dependent, -1, Integer::sum) == 0) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        if (ordered < degrees.size()) {
+            for (Node node : degrees.keySet()) {
+                if (degrees.get(node) > 0 && !node.resolved) {
+                    node.resolved = true;
+                    cyclicTasks.add(node.task);
+                }
+            }
+        }
+
+        for (Node node : nodes.values()) {
+            if (!node.resolved) {
+                remaining++;
+                if (node.inDegree == 0) {
+                    ready.add(node.task);
+                }
+            }
+        }
+    }
+
+    // Take the highest-priority ready task, waiting while other tasks are still running.
+    // Returns null once every runnable task has been resolved, or once nothing is running and the
+    // remaining tasks are all waiting on other servers.
+    // An open graph instead waits for new tasks until it stops accepting them.
+    public synchronized Task takeReady() throws InterruptedException {
+        while (!stopped && ready.isEmpty() && (accepting || (remaining > 0 && running > 0))) {
+            wait();
+        }
+        Task task = stopped ? null : ready.poll();
+        if (task == null) {
+            closed = true;
+            notifyAll();
+        } else {
+            running++;
+        }
+        return task;
+    }
+
+    // Take the highest-priority ready task without waiting; returns null if none is ready right now
+    public synchronized Task pollReady() {
+        Task task = stopped ? null : ready.poll();
+        if (task != null) {
+            running++;
+        }
+        return task;
+    }
+
+    // Add a task to an open graph. Its dependencies must be in the graph, completed, or pending on another
+    // server; returns false, without adding it, if one is none of these. Adding a task twice has no effect.
+    public synchronized boolean add(Task task, Predicate<String> isCompleted, Predicate<String> isPending) {
+        if (!accepting) {
+            throw new IllegalStateException("Graph is not accepting tasks");
+        }
+        if (nodes.containsKey(task)) {
+            return true;
+        }
+        Node node = new Node(task);
+        List<Node> dependencies = new ArrayList<>();
+        List<String> external = new ArrayList<>();
+        for (String dependencyId : task.getDependencies()) {
+            Node dependency = byId.get(dependencyId);
+            if (dependency != null && !dependency.resolved) {
+                dependencies.add(dependency);
+            } else if (isCompleted.test(dependencyId)) {
+                continue;
+            } else if (isPending.test(dependencyId)) {
+                external.add(dependencyId);
+            } else {
+                return false;
+            }
+        }
+        // New tasks have no dependents yet, so adding one can never close a cycle
+        for (Node dependency : dependencies) {
+            dependency.dependents.add(node);
+        }
+        for (String dependencyId : external) {
+            externalWaiters.computeIfAbsent(dependencyId, id -> new ArrayList<>()).add(node);
+        }
+        node.inDegree = dependencies.size() + external.size();
+        nodes.put(task, node);
+        byId.put(task.getId(), node);
+        remaining++;
+        if (node.inDegree == 0) {
+            ready.add(task);
+            notifyAll();
+        }
+        return true;
+    }
+
+    // Stop taking tasks; workers finish once the tasks already added are resolved
+    public synchronized void stopAccepting() {
+        accepting = false;
+        notifyAll();
+    }
+
+    // Stop handing out tasks altogether; running tasks are still reported back
+    public synchronized void stop() {
+        accepting = false;
+        stopped = true;
+        notifyAll();
+    }
+
+    // IDs of dependencies this graph is waiting for on other servers
+    public synchronized Set<String> getExternalDependencies() {
+        return new HashSet<>(externalWaiters.keySet());
+    }
+
+    // Release the tasks waiting on an external dependency. Returns false if the pass has already
+    // finished its local work, in which case the caller should run the tasks in a later pass.
+    public synchronized boolean externalDependencyCompleted(String dependencyId) {
+        if (closed) {
+            return false;
+        }
+        List<Node> waiters = externalWaiters.remove(dependencyId);
+        if (waiters != null) {
+            for (Node node : waiters) {
+                if (!node.resolved && --node.inDegree == 0) {
+                    ready.add(node.task);
+                }
+            }
+            notifyAll();
+        }
+        return true;
+    }
+
+    // Skip the tasks waiting on an external dependency that failed or was cancelled, and everything downstream
+    // of them. Returns false if the pass has already finished its local work, as externalDependencyCompleted() does.
+    public synchronized boolean externalDependencyFailed(String dependencyId) {
+        if (closed) {
+            return false;
+        }
+        List<Node> waiters = externalWaiters.remove(dependencyId);
+        if (waiters != null) {
+            for (Node node : waiters) {
+                if (!node.resolved) {
+                    node.resolved = true;
+                    forget(node);
+                    skippedTasks.add(node.task);
+                    remaining--;
+                    remaining -= resolveDependents(node, skippedTasks);
+                }
+            }
+            notifyAll();
+        }
+        return true;
+    }
+
+    // Report a task as completed, releasing dependents whose in-degree drops to zero
+    public synchronized void markCompleted(Task task) {
+        Node node = finish(task);
+        for (Node dependent : node.dependents) {
+            if (!dependent.resolved && --dependent.inDegree == 0) {
+                ready.add(dependent.task);
+            }
+        }
+        notifyAll();
+    }
+
+    // Hand a running task back to the ready queue, e.g. when a retry delay has elapsed
+    public synchronized void requeue(Task task) {
+        Node node = nodes.get(task);
+        if (node == null || node.resolved) {
+            throw new IllegalStateException("Task " + task.getId() + " is not running in this graph");
+        }
+        running--;
+        ready.add(task);
+        notifyAll();
+    }
+
+    // Report a task as failed; every task downstream of it is skipped for this pass
+    public synchronized void markFailed(Task task) {
+        Node node = finish(task);
+        remaining -= resolveDependents(node, skippedTasks);
+        notifyAll();
+    }
+
+    // Report a running task as moved to another server. Its dependents stay in the graph, now waiting on
+    // it as an external dependency; returns true if any do, so the caller can subscribe to its completion.
+    public synchronized boolean markHandedOff(Task task) {
+        Node node = finish(task);
+        boolean waited = false;
+        for (Node dependent : node.dependents) {
+            if (!dependent.resolved) {
+                externalWaiters.computeIfAbsent(task.getId(), id -> new ArrayList<>()).add(dependent);
+                waited = true;
+            }
+        }
+        notifyAll();
+        return waited;
+    }
+
+    // Withdraw a task that has not been handed out yet; every task downstream of it is skipped for this pass.
+    // Returns false if the task is running, in which case only its outcome can tell the pass it is done.
+    public synchronized boolean cancel(Task task) {
+        Node node = nodes.get(task);
+        if (node == null || node.resolved) {
+            return true;
+        }
+        if (node.inDegree == 0 && !ready.remove(task)) {
+            return false;
+        }
+        node.resolved = true;
+        forget(node);
+        remaining--;
+        remaining -= resolveDependents(node, skippedTasks);
+        notifyAll();
+        return true;
+    }
+
+    private Node finish(Task task) {
+        Node node = nodes.get(task);
+        if (node == null || node.resolved) {
+            throw new IllegalStateException("Task " + task.getId() + " is not running in this graph");
+        }
+        node.resolved = true;
+        remaining--;
+        running--;
+        forget(node);
+        return node;
+    }
+
+    // Drop a resolved node; later dependents find its outcome through the completion predicate instead
+    private void forget(Node node) {
+        nodes.remove(node.task);
+        byId.remove(node.task.getId(), node);
+    }
+
+    // Resolve every not-yet-resolved task downstream of the node, collecting them; returns how many
+    private int resolveDependents(Node node, List<Task> into) {
+        int count = 0;
+        Deque<Node> stack = new ArrayDeque<>(node.dependents);
+        while (!stack.isEmpty()) {
+            Node dependent = stack.pop();
+            if (!dependent.resolved) {
+                dependent.resolved = true;
+                forget(dependent);
+                into.add(dependent.task);
+                count++;
+                stack.addAll(dependent.dependents);
+            }
+        }
+        return count;
+    }
+
+    // Whether every runnable task has been resolved
+    public synchronized boolean isDone() {
+        return remaining == 0;
+    }
+
+    // Tasks that depend (directly or transitively) on a task that is neither completed nor in the batch
+    public List<Task> getUnresolvedTasks() {
+        return new ArrayList<>(unresolvedTasks);
+    }
+
+    // Tasks that are part of, or depend on, a dependency cycle
+    public List<Task> getCyclicTasks() {
+        return new ArrayList<>(cyclicTasks);
+    }
+
+    // Tasks skipped because a dependency failed during the pass
+    public synchronized List<Task> getSkippedTasks() {
+        return new ArrayList<>(skippedTasks);
+    }
+
+    // Tasks skipped since the last call; an open graph reports them as they happen instead of at the end
+    public synchronized List<Task> takeSkippedTasks() {
+        List<Task> skipped = new ArrayList<>(skippedTasks);
+        skippedTasks.clear();
+        return skipped;
+    }
+
+    // Tasks left unresolved when the pass ended because they still wait on other servers
+    public synchronized List<Task> getWaitingTasks() {
+        List<Task> waiting = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (!node.resolved) {
+                waiting.add(node.task);
+            }
+        }
+        return waiting;
+    }
+}
@@ -0,0 +1,134 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.servers.Server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Min-heap of servers keyed by their load, with an index so a server's key can be updated in O(log S).
+// Each entry stores the load it was ordered by, so a server's load changing while it sits in the heap
+// cannot break the heap invariant; callers report the change through update().
+public class IndexedServerHeap {
+
+    private Server[] servers = new Server[11];
+    private long[] loads = new long[11];
+    private int size;
+
+    // Position of each server in the heap arrays
+    private final Map<Server, Integer> positions = new IdentityHashMap<>();
+
+    // Add a server using its current load as the key; adding a server twice only refreshes its key
+    public synchronized void add(Server server) {
+        Objects.requireNonNull(server, "Server cannot be null");
+        if (positions.containsKey(server)) {
+            update(server);
+            return;
+        }
+        if (size == servers.length) {
+            servers = Arrays.copyOf(servers, size * 2);
+            loads = Arrays.copyOf(loads, size * 2);
+        }
+        servers[size] = server;
+        loads[size] = server.getTotalLoad();
+        positions.put(server, size);
+        siftUp(size++);
+    }
+
+    // Remove a server from the heap, returning false if it was not present
+    public synchronized boolean remove(Server server) {
+        Integer position = positions.remove(server);
+        if (position == null) {
+            return false;
+        }
+        int last = --size;
+        if (position != last) {
+            move(last, position);
+            siftDown(position);
+            siftUp(position);
+        }
+        servers[last] = null;
+        return true;
+    }
+
+    // Re-read a server's load and restore its position in the heap
+    public synchronized void update(Server server) {
+        Integer position = positions.get(server);
+        if (position == null) {
+            return;
+        }
+        long load = server.getTotalLoad();
+        long previous = loads[position];
+        loads[position] = load;
+        if (load < previous) {
+            siftUp(position);
+        } else if (load > previous) {
+            siftDown(position);
+        }
+    }
+
+    // The server with the lowest load, or null if the heap is empty
+    public synchronized Server peek() {
+        return size == 0 ? null : servers[0];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean contains(Server server) {
+        return positions.containsKey(server);
+    }
+
+    // Copy of the servers currently in the heap (heap order, not sorted)
+    public synchronized List<Server> snapshot() {
+        return new ArrayList<>(Arrays.asList(servers).subList(0, size));
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (loads[parent] <= loads[position]) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && loads[right] < loads[child]) {
+                child = right;
+            }
+            if (loads[position] <= loads[child]) {
+                break;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Server server = servers[i];
+        long load = loads[i];
+        servers[i] = servers[j];
+        loads[i] = loads[j];
+        servers[j] = server;
+        loads[j] = load;
+        positions.put(servers[i], i);
+        positions.put(servers[j], j);
+    }
+
+    private void move(int from, int to) {
+        servers[to] = servers[from];
+        loads[to] = loads[from];
+        positions.put(servers[to], to);
+    }
+}
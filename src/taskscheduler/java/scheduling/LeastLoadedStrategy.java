@@ -0,0 +1,37 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.Task;
+
+import java.util.List;
+
+// Places every task on the least loaded server, tracked by an indexed min-heap
+public class LeastLoadedStrategy implements ServerSelectionStrategy {
+
+    private final IndexedServerHeap heap = new IndexedServerHeap();
+
+    @Override
+    public void addServer(Server server) {
+        heap.add(server);
+    }
+
+    @Override
+    public boolean removeServer(Server server) {
+        return heap.remove(server);
+    }
+
+    @Override
+    public void onLoadChanged(Server server) {
+        heap.update(server);
+    }
+
+    @Override
+    public Server selectServer(Task task) {
+        return heap.peek();
+    }
+
+    @Override
+    public List<Server> getServers() {
+        return heap.snapshot();
+    }
+}
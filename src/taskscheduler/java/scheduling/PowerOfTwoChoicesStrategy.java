@@ -0,0 +1,33 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.Task;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Samples two distinct servers at random and places the task on the less loaded of the two.
+// Gives near-optimal balance while submitters never contend on a shared structure.
+public class PowerOfTwoChoicesStrategy extends ServerListStrategy {
+
+    @Override
+    public Server selectServer(Task task) {
+        Server[] candidates = servers.toArray(new Server[0]);  // One snapshot, so concurrent removals cannot bite
+        if (candidates.length == 0) {
+            return null;
+        }
+        if (candidates.length == 1) {
+            return candidates[0];
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.length);
+        int second = random.nextInt(candidates.length - 1);
+        if (second >= first) {
+            second++;  // Skip the first pick so the two samples are distinct
+        }
+
+        Server a = candidates[first];
+        Server b = candidates[second];
+        return a.getTotalLoad() <= b.getTotalLoad() ? a : b;
+    }
+}
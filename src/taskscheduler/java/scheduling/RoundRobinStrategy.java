@@ -0,0 +1,21 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.Task;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cycles through the servers in registration order, ignoring their load
+public class RoundRobinStrategy extends ServerListStrategy {
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public Server selectServer(Task task) {
+        Server[] candidates = servers.toArray(new Server[0]);  // One snapshot, so concurrent removals cannot bite
+        if (candidates.length == 0) {
+            return null;
+        }
+        return candidates[Math.floorMod(next.getAndIncrement(), candidates.length)];
+    }
+}
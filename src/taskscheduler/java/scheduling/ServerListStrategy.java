@@ -0,0 +1,31 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.servers.Server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Base for strategies that select from a plain server list without any global lock.
+// Servers are added rarely and read on every placement, so a copy-on-write list fits.
+public abstract class ServerListStrategy implements ServerSelectionStrategy {
+
+    protected final CopyOnWriteArrayList<Server> servers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void addServer(Server server) {
+        Objects.requireNonNull(server, "Server cannot be null");
+        servers.addIfAbsent(server);  // Atomic, so concurrent adds cannot register a server twice
+    }
+
+    @Override
+    public boolean removeServer(Server server) {
+        return servers.remove(server);
+    }
+
+    @Override
+    public List<Server> getServers() {
+        return new ArrayList<>(servers);
+    }
+}
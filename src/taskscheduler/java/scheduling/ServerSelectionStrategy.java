@@ -0,0 +1,47 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.Task;
+
+import java.util.List;
+
+// Decides which server receives each scheduled task. Implementations own their view of the
+// server set and must be safe to call from many submitting threads at once.
+public interface ServerSelectionStrategy {
+
+    // Register a server as a placement candidate
+    void addServer(Server server);
+
+    // Stop placing tasks on a server, returning false if it was not registered
+    boolean removeServer(Server server);
+
+    // Called when a registered server's load changes; strategies that cache loads re-key here
+    default void onLoadChanged(Server server) {
+    }
+
+    // Choose a server for the task, or null if no server is registered
+    Server selectServer(Task task);
+
+    // Copy of the registered servers
+    List<Server> getServers();
+
+    // Always pick the server with the least queued load (the scheduler's default)
+    static ServerSelectionStrategy leastLoaded() {
+        return new LeastLoadedStrategy();
+    }
+
+    // Sample two servers at random and pick the less loaded one
+    static ServerSelectionStrategy powerOfTwoChoices() {
+        return new PowerOfTwoChoicesStrategy();
+    }
+
+    // Cycle through the servers in registration order
+    static ServerSelectionStrategy roundRobin() {
+        return new RoundRobinStrategy();
+    }
+
+    // Pick a server at random, weighted by its remaining capacity
+    static ServerSelectionStrategy weightedByCapacity() {
+        return new WeightedCapacityStrategy();
+    }
+}
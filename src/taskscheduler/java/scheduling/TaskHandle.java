@@ -0,0 +1,74 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.tasks.Task;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+// Handle to one scheduled task. Its future completes with the task once it completes on any server, fails
+// with a TaskException if the task fails or is skipped, and is cancelled if the task is cancelled, so callers
+// can await or chain work on a single task instead of polling the servers' completed lists.
+public class TaskHandle {
+
+    // Withdraws a task from wherever it is queued; returns false if no server holds it
+    @FunctionalInterface
+    public interface Canceller {
+        boolean cancel(Task task, boolean mayInterruptIfRunning);
+    }
+
+    private final Task task;
+    private final CompletableFuture<Task> future = new CompletableFuture<>();
+    private final Canceller canceller;
+
+    // Creates a handle completed from the registry's outcome for the task
+    public TaskHandle(Task task, CompletableFuture<?> outcome, Canceller canceller) {
+        this.task = Objects.requireNonNull(task, "Task cannot be null");
+        this.canceller = Objects.requireNonNull(canceller, "Canceller cannot be null");
+        outcome.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause == null) {
+                future.complete(task);
+            } else if (cause instanceof CancellationException) {
+                future.cancel(false);
+            } else {
+                future.completeExceptionally(cause);
+            }
+        });
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    // Future of the task's outcome. Cancelling it does not withdraw the task; use cancel() for that.
+    public CompletableFuture<Task> getFuture() {
+        return future;
+    }
+
+    // Run follow-up work, e.g. scheduling another task, once this one completes
+    public <U> CompletableFuture<U> thenCompose(Function<? super Task, ? extends CompletionStage<U>> next) {
+        return future.thenCompose(next);
+    }
+
+    // Remove the task from its server's queue, or interrupt it if it is running and that is allowed.
+    // Returns false if the task has already finished or is no longer queued anywhere.
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (future.isDone() || !canceller.cancel(task, mayInterruptIfRunning)) {
+            return false;
+        }
+        future.cancel(false);
+        return true;
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+}
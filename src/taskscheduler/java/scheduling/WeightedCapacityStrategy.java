@@ -0,0 +1,38 @@
+package taskscheduler.java.scheduling;
+
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.Task;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Picks a server at random with probability proportional to its remaining capacity,
+// so servers with more free room receive proportionally more work
+public class WeightedCapacityStrategy extends ServerListStrategy {
+
+    @Override
+    public Server selectServer(Task task) {
+        Server[] candidates = servers.toArray(new Server[0]);
+        if (candidates.length == 0) {
+            return null;
+        }
+
+        long[] weights = new long[candidates.length];
+        long totalWeight = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            weights[i] = Math.max(0, candidates[i].getRemainingCapacity());
+            totalWeight += weights[i];
+        }
+        if (totalWeight <= 0) {
+            return candidates[0];  // Every server is full; let addTask report it
+        }
+
+        long target = ThreadLocalRandom.current().nextLong(totalWeight);
+        for (int i = 0; i < candidates.length; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return candidates[i];
+            }
+        }
+        return candidates[candidates.length - 1];
+    }
+}
@@ -0,0 +1,11 @@
+package taskscheduler.java.servers;
+
+import taskscheduler.java.tasks.Task;
+
+// Receives tasks a server gives back because it cannot run them now, e.g. its executor is shedding load
+@FunctionalInterface
+public interface RejectedTaskHandler {
+
+    // Place the task somewhere else; returns false if no other server took it
+    boolean onTaskRejected(Server from, Task task);
+}
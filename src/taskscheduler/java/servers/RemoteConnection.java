@@ -0,0 +1,155 @@
+package taskscheduler.java.servers;
+
+import taskscheduler.java.concurrent.TaskExecutors;
+import taskscheduler.java.protocol.RemoteRequest;
+import taskscheduler.java.protocol.RemoteResponse;
+import taskscheduler.java.protocol.WireCodec;
+import taskscheduler.java.tasks.Task;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// One long-lived, multiplexed connection to a remote task executor.
+// Any number of requests may be outstanding; a reader thread matches replies to them by request ID.
+public class RemoteConnection implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(RemoteConnection.class.getName());
+    private static final ThreadFactory READER_THREADS = TaskExecutors.daemonThreadFactory("remote-connection-reader");
+
+    private final Socket socket;
+    private final OutputStream out;
+    private final InputStream in;
+    private final WireCodec codec = new WireCodec();  // Writes under the output lock, reads on the reader thread
+    private final Map<Long, CompletableFuture<RemoteResponse>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong nextRequestId = new AtomicLong();
+    private volatile boolean closed;
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    public RemoteConnection(String host, int port, int connectTimeoutMillis) throws IOException {
+        socket = new Socket();
+        try {
+            socket.setKeepAlive(true);
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            out = socket.getOutputStream();
+            in = new BufferedInputStream(socket.getInputStream());
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        READER_THREADS.newThread(this::readResponses).start();
+    }
+
+    // Send a task for execution; the future completes with the executor's reply
+    public CompletableFuture<RemoteResponse> sendTask(Task task) {
+        return send(RemoteRequest.Type.TASK, List.of(task));
+    }
+
+    // Send several tasks in one frame; the reply holds one status per task, in the same order
+    public CompletableFuture<RemoteResponse> sendBatch(List<Task> tasks) {
+        return send(RemoteRequest.Type.BATCH, tasks);
+    }
+
+    // Round-trip a PING to check that the executor is still answering
+    public CompletableFuture<RemoteResponse> ping() {
+        return send(nextRequestId.incrementAndGet(), RemoteRequest.Type.PING, List.of());
+    }
+
+    // As ping(), but gives up after the timeout and stops waiting for the reply, so it is not left in flight
+    public CompletableFuture<RemoteResponse> ping(long timeout, TimeUnit unit) {
+        long requestId = nextRequestId.incrementAndGet();
+        CompletableFuture<RemoteResponse> response = send(requestId, RemoteRequest.Type.PING, List.of());
+        return response.orTimeout(timeout, unit).whenComplete((reply, error) -> {
+            if (error instanceof TimeoutException) {
+                pending.remove(requestId, response);
+            }
+        });
+    }
+
+    private CompletableFuture<RemoteResponse> send(RemoteRequest.Type type, List<Task> tasks) {
+        return send(nextRequestId.incrementAndGet(), type, tasks);
+    }
+
+    private CompletableFuture<RemoteResponse> send(long requestId, RemoteRequest.Type type, List<Task> tasks) {
+        CompletableFuture<RemoteResponse> response = new CompletableFuture<>();
+        pending.put(requestId, response);
+        lastUsedNanos = System.nanoTime();
+        try {
+            synchronized (out) {
+                if (closed) {
+                    throw new IOException("Connection is closed");
+                }
+                WireCodec.writeFrame(out, codec.encode(new RemoteRequest(requestId, type, tasks)));
+            }
+        } catch (IOException e) {
+            pending.remove(requestId);
+            response.completeExceptionally(e);
+            close();
+        } catch (IllegalArgumentException e) {
+            pending.remove(requestId);
+            response.completeExceptionally(e);  // No codec for a task; the connection itself is fine
+        }
+        return response;
+    }
+
+    // Reader loop: dispatch every reply to the request waiting for it
+    private void readResponses() {
+        try {
+            ByteBuffer frame;
+            while (!closed && (frame = codec.readFrame(in)) != null) {
+                RemoteResponse response = codec.decodeResponse(frame);
+                CompletableFuture<RemoteResponse> waiting = pending.remove(response.getRequestId());
+                if (waiting != null) {
+                    waiting.complete(response);
+                } else {
+                    logger.log(Level.WARNING, "Discarding reply to unknown request {0}", response.getRequestId());
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                logger.log(Level.WARNING, "Connection to {0} lost: {1}", new Object[]{socket.getRemoteSocketAddress(), e.getMessage()});
+            }
+        } finally {
+            close();
+        }
+    }
+
+    // Number of requests sent and not yet answered
+    public int getInFlightCount() {
+        return pending.size();
+    }
+
+    public boolean isOpen() {
+        return !closed && !socket.isClosed();
+    }
+
+    // Nanoseconds since a request was last sent on this connection
+    public long getIdleNanos() {
+        return System.nanoTime() - lastUsedNanos;
+    }
+
+    // Close the socket and fail every outstanding request
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Failed to close connection: {0}", e.getMessage());
+        }
+        IOException failure = new IOException("Connection closed before a reply was received");
+        pending.values().forEach(response -> response.completeExceptionally(failure));
+        pending.clear();
+    }
+}
@@ -0,0 +1,186 @@
+package taskscheduler.java.servers;
+
+import taskscheduler.java.concurrent.TaskExecutors;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Long-lived connections to one remote executor host/port, shared by every RemoteServer that targets it.
+// Requests are multiplexed, so a connection is never leased exclusively: the least busy one is used, and a
+// new one is opened only while all existing connections have requests in flight and the pool is not full.
+// A periodic health check pings each connection and drops the ones that are broken, unresponsive or idle.
+public class RemoteConnectionPool {
+
+    private static final Logger logger = Logger.getLogger(RemoteConnectionPool.class.getName());
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 4;
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 5_000;
+    public static final long DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS = 15_000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+
+    // One pool per host:port for the whole process
+    private static final Map<String, RemoteConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+    private final String host;
+    private final int port;
+    private final int maxConnections;
+    private final long healthCheckIntervalMillis;
+    private final long idleTimeoutMillis;
+    private final List<RemoteConnection> connections = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    private final LongAdder openedCount = new LongAdder();
+    private final LongAdder idleClosedCount = new LongAdder();
+    private final LongAdder unhealthyCount = new LongAdder();  // Failed a ping or found broken
+
+    public RemoteConnectionPool(String host, int port, int maxConnections,
+                                long healthCheckIntervalMillis, long idleTimeoutMillis) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("A connection pool needs at least one connection");
+        }
+        this.host = host;
+        this.port = port;
+        this.maxConnections = maxConnections;
+        this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        scheduleHealthCheck();
+    }
+
+    // The shared pool for a host and port, created with default settings on first use
+    public static RemoteConnectionPool forAddress(String host, int port) {
+        return POOLS.computeIfAbsent(host + ":" + port, key -> new RemoteConnectionPool(host, port,
+                DEFAULT_MAX_CONNECTIONS, DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS, DEFAULT_IDLE_TIMEOUT_MILLIS));
+    }
+
+    // The least busy open connection, opening another one if every connection is busy and there is room
+    public RemoteConnection connection() throws IOException {
+        if (closed) {
+            throw new IOException("Connection pool for " + host + ":" + port + " is closed");
+        }
+        RemoteConnection leastBusy = leastBusy();
+        if (leastBusy != null && (leastBusy.getInFlightCount() == 0 || connections.size() >= maxConnections)) {
+            return leastBusy;
+        }
+        synchronized (this) {
+            // Another caller may have opened a connection while we were waiting
+            leastBusy = leastBusy();
+            if (leastBusy != null && (leastBusy.getInFlightCount() == 0 || connections.size() >= maxConnections)) {
+                return leastBusy;
+            }
+            RemoteConnection opened = new RemoteConnection(host, port, DEFAULT_CONNECT_TIMEOUT_MILLIS);
+            connections.add(opened);
+            openedCount.increment();
+            logger.log(Level.FINE, "Opened connection {0} of {1} to {2}:{3}",
+                    new Object[]{connections.size(), maxConnections, host, String.valueOf(port)});
+            return opened;
+        }
+    }
+
+    private RemoteConnection leastBusy() {
+        RemoteConnection leastBusy = null;
+        for (RemoteConnection connection : connections) {
+            if (!connection.isOpen()) {
+                if (connections.remove(connection)) {
+                    unhealthyCount.increment();
+                }
+            } else if (leastBusy == null || connection.getInFlightCount() < leastBusy.getInFlightCount()) {
+                leastBusy = connection;
+            }
+        }
+        return leastBusy;
+    }
+
+    // The timer thread only hands the check off; the pings themselves run on the execution pool
+    private void scheduleHealthCheck() {
+        if (!closed && healthCheckIntervalMillis > 0) {
+            TaskExecutors.timer().newTimeout(() -> TaskExecutors.executionPool().execute(this::checkHealth),
+                    healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Close idle connections and ping the rest, dropping any that do not answer in time
+    void checkHealth() {
+        try {
+            long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+            for (RemoteConnection connection : connections) {
+                if (!connection.isOpen()) {
+                    if (connections.remove(connection)) {
+                        unhealthyCount.increment();
+                    }
+                } else if (connection.getInFlightCount() == 0 && connection.getIdleNanos() > idleTimeoutNanos) {
+                    connections.remove(connection);
+                    connection.close();
+                    idleClosedCount.increment();
+                } else {
+                    try {
+                        connection.ping().get(DEFAULT_CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    } catch (ExecutionException | TimeoutException e) {
+                        logger.log(Level.WARNING, "Dropping unhealthy connection to {0}:{1}",
+                                new Object[]{host, String.valueOf(port)});
+                        connections.remove(connection);
+                        connection.close();
+                        unhealthyCount.increment();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            scheduleHealthCheck();
+        }
+    }
+
+    // Number of connections currently held open
+    public int size() {
+        return connections.size();
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    // Requests awaiting a reply across all connections
+    public int getInFlightCount() {
+        int inFlight = 0;
+        for (RemoteConnection connection : connections) {
+            inFlight += connection.getInFlightCount();
+        }
+        return inFlight;
+    }
+
+    // Connections opened since the pool was created
+    public long getOpenedCount() {
+        return openedCount.sum();
+    }
+
+    // Connections closed by the health check after sitting idle
+    public long getIdleClosedCount() {
+        return idleClosedCount.sum();
+    }
+
+    // Connections dropped because they broke or did not answer a ping
+    public long getUnhealthyCount() {
+        return unhealthyCount.sum();
+    }
+
+    // Close every open connection, failing their outstanding requests; later calls open fresh connections
+    public void closeConnections() {
+        for (RemoteConnection connection : connections) {
+            connections.remove(connection);
+            connection.close();
+        }
+    }
+
+    // Close every connection and stop health checks; callers get an IOException afterwards
+    public void close() {
+        closed = true;
+        POOLS.remove(host + ":" + port, this);
+        connections.forEach(RemoteConnection::close);
+        connections.clear();
+    }
+}
@@ -1,65 +1,351 @@
 package taskscheduler.java.servers;
 
+import taskscheduler.java.concurrent.TaskExecutors;
+import taskscheduler.java.exceptions.ServerBusyException;
 import taskscheduler.java.exceptions.ServerException;
-import taskscheduler.java.exceptions.TaskException;
+import taskscheduler.java.exceptions.ServerUnavailableException;
+import taskscheduler.java.concurrent.HashedWheelTimer;
 import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.protocol.ExecutorTelemetry;
+import taskscheduler.java.protocol.RemoteResponse;
 import taskscheduler.java.tasks.Task;
 
-import java.io.*;
-import java.net.Socket;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class RemoteServer extends Server {
 
+    public static final int DEFAULT_IN_FLIGHT_WINDOW = 64;  // Tasks sent and not yet answered
+    public static final int DEFAULT_MAX_BATCH_SIZE = 16;  // Tasks carried by one BATCH frame
+    public static final int DEFAULT_MAX_BUSY_RETRIES = 3;  // Resends of a BUSY task before giving it back
+    public static final long DEFAULT_HEARTBEAT_INTERVAL_MILLIS = 1_000;
+    public static final int DEFAULT_SUSPECT_AFTER_FAILURES = 3;  // Consecutive missed heartbeats or failed requests
+
     private final String remoteHost;
     private final int remotePort;
+    private final RemoteConnectionPool connectionPool;
+    private final int inFlightWindow;
+    private final int maxBatchSize;
+    private final Semaphore window;  // One permit per task that is buffered or awaiting its reply
+    private volatile int maxBusyRetries = DEFAULT_MAX_BUSY_RETRIES;
+    private final Map<Task, Integer> busyReplies = new ConcurrentHashMap<>();  // BUSY answers per task in flight
+
+    // Latest load reported by the executor, on a reply or a heartbeat
+    private volatile ExecutorTelemetry telemetry = ExecutorTelemetry.IDLE;
+    private volatile long heartbeatIntervalMillis;  // 0 while heartbeats are stopped
+    private volatile HashedWheelTimer.Timeout nextHeartbeat;
+
+    // Failure detection: consecutive heartbeat or request failures, and whether the server is suspected down
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile int suspectAfterFailures = DEFAULT_SUSPECT_AFTER_FAILURES;
+    private volatile boolean suspected;
+    private volatile ServerHealthListener healthListener;
     private static final Logger logger = Logger.getLogger(RemoteServer.class.getName());
 
+    // Ready tasks buffered until the batch is full or the workers run out of ready tasks
+    private final Object batchLock = new Object();
+    private List<Task> batch = new ArrayList<>();
+    private List<CompletableFuture<Boolean>> batchOutcomes = new ArrayList<>();
+
     // Constructor for RemoteServer that specifies the remote host and port
     public RemoteServer(String remoteHost, int remotePort, RetryPolicy retryPolicy) {
+        this(remoteHost, remotePort, retryPolicy, RemoteConnectionPool.forAddress(remoteHost, remotePort));
+    }
+
+    // Constructor for RemoteServer that sends its tasks over the given connection pool
+    public RemoteServer(String remoteHost, int remotePort, RetryPolicy retryPolicy, RemoteConnectionPool connectionPool) {
+        this(remoteHost, remotePort, retryPolicy, connectionPool, DEFAULT_IN_FLIGHT_WINDOW, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    // Constructor for RemoteServer with an explicit in-flight window and batch size.
+    // A window and batch size of 1 sends one task at a time and waits for each reply.
+    public RemoteServer(String remoteHost, int remotePort, RetryPolicy retryPolicy, RemoteConnectionPool connectionPool,
+                        int inFlightWindow, int maxBatchSize) {
         super(retryPolicy);  // Call the parent Server class constructor with retry policy
+        if (inFlightWindow < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("In-flight window and batch size must be at least 1");
+        }
         this.remoteHost = remoteHost;
         this.remotePort = remotePort;
+        this.connectionPool = connectionPool;
+        this.inFlightWindow = inFlightWindow;
+        this.maxBatchSize = Math.min(maxBatchSize, inFlightWindow);
+        this.window = new Semaphore(inFlightWindow);
     }
 
-    // Override the executeTasks() method to send tasks to the remote server for execution
+    // Buffer a task for the remote server without waiting for its reply. The inherited executeTasks() still
+    // orders the queue by dependencies and priority, and keeps dispatching ready tasks while these are in flight.
     @Override
-    public List<Task> executeTasks() throws ServerException {
-        List<Task> completedTasks = new ArrayList<>();
-
-        // Process all tasks in the queue (inherited from the superclass) and send them to the remote server
-        while (!getTasks().isEmpty()) {  // taskQueue is inherited from the Server class
-            Task task = getTasks().poll();
-            if (task != null) {
-                try (Socket socket = new Socket(remoteHost, remotePort);
-                     ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
-                     ObjectInputStream in = new ObjectInputStream(socket.getInputStream())) {
-
-                    // Send the serialized task to the remote server
-                    out.writeObject(task);
-                    out.flush();
-
-                    // Wait for the response (ACK or FAILED)
-                    String response = (String) in.readObject();
-                    if ("ACK".equals(response)) {
-                        logger.log(Level.INFO, "Task {0} executed successfully on remote server.", task.getId());
-                        completedTasks.add(task);
-                    } else {
-                        logger.log(Level.SEVERE, "Task {0} execution failed on remote server.", task.getId());
-                        throw new TaskException("Remote server failed to execute task: " + task.getId(), new Throwable());
-                    }
-
-                } catch (IOException | ClassNotFoundException | TaskException e) {
-                    logger.log(Level.SEVERE, "Failed to execute task {0} on remote server: {1}", new Object[]{task.getId(), e.getMessage()});
-                    throw new ServerException("Failed to communicate with remote server.", e);
+    protected CompletableFuture<Boolean> submitTask(Task task) {
+        if (suspected) {
+            // Fail fast so the execution loop hands the task to a healthy server
+            return CompletableFuture.failedFuture(new ServerUnavailableException("Remote server is suspected down.", null));
+        }
+        if (!window.tryAcquire()) {
+            flushSubmissions();  // Do not hold back buffered tasks while waiting for the window to open
+            try {
+                window.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(new ServerException("Interrupted while waiting for the remote server.", e));
+            }
+        }
+
+        CompletableFuture<Boolean> outcome = new CompletableFuture<>();
+        outcome.whenComplete((completed, error) -> {
+            window.release();
+            busyReplies.remove(task);
+        });
+        buffer(task, outcome);
+        return outcome;
+    }
+
+    // Add a task to the pending batch, sending the batch once it is full
+    private void buffer(Task task, CompletableFuture<Boolean> outcome) {
+        boolean full;
+        synchronized (batchLock) {
+            batch.add(task);
+            batchOutcomes.add(outcome);
+            full = batch.size() >= maxBatchSize;
+        }
+        if (full) {
+            flushSubmissions();
+        }
+    }
+
+    // Send the buffered tasks as one TASK or BATCH frame and complete their outcomes when the reply arrives
+    @Override
+    protected void flushSubmissions() {
+        List<Task> sending;
+        List<CompletableFuture<Boolean>> outcomes;
+        synchronized (batchLock) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            sending = batch;
+            outcomes = batchOutcomes;
+            batch = new ArrayList<>();
+            batchOutcomes = new ArrayList<>();
+        }
+
+        CompletableFuture<RemoteResponse> response;
+        try {
+            RemoteConnection connection = connectionPool.connection();
+            response = sending.size() == 1 ? connection.sendTask(sending.get(0)) : connection.sendBatch(sending);
+        } catch (IOException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((reply, error) -> {
+            if (reply != null) {
+                updateTelemetry(reply.getTelemetry());
+            }
+            if (error != null) {
+                logger.log(Level.SEVERE, "Failed to execute {0} tasks on remote server: {1}", new Object[]{sending.size(), error.getMessage()});
+                recordFailure();
+                ServerException failure = new ServerUnavailableException("Failed to communicate with remote server.", error);
+                outcomes.forEach(outcome -> outcome.completeExceptionally(failure));
+                return;
+            }
+            recordSuccess();
+            for (int i = 0; i < sending.size(); i++) {
+                RemoteResponse.Status status = i < reply.getStatuses().size() ? reply.getStatuses().get(i) : RemoteResponse.Status.FAILED;
+                if (status == RemoteResponse.Status.BUSY) {
+                    onBusy(sending.get(i), outcomes.get(i), reply.getRetryAfterMillis());
+                    continue;
                 }
+                boolean acknowledged = status == RemoteResponse.Status.ACK;
+                if (acknowledged) {
+                    logger.log(Level.INFO, "Task {0} executed successfully on remote server.", sending.get(i).getId());
+                } else {
+                    logger.log(Level.SEVERE, "Task {0} execution failed on remote server.", sending.get(i).getId());
+                }
+                outcomes.get(i).complete(acknowledged);
             }
+        });
+    }
+
+    // The executor is shedding load: resend the task after the delay it asked for, keeping its window permit so
+    // this server slows down too. After too many BUSY answers the attempt ends with a ServerBusyException, and
+    // the inherited execution loop hands the task to another server if the scheduler can place it.
+    private void onBusy(Task task, CompletableFuture<Boolean> outcome, long retryAfterMillis) {
+        int busyCount = busyReplies.merge(task, 1, Integer::sum);
+        if (busyCount > maxBusyRetries) {
+            logger.log(Level.WARNING, "Remote server stayed busy for task {0}; giving it back.", task.getId());
+            outcome.completeExceptionally(new ServerBusyException("Remote server is busy.", retryAfterMillis));
+            return;
         }
+        long delay = Math.max(1, retryAfterMillis) << Math.min(busyCount - 1, 10);  // Back off further on every BUSY answer
+        logger.log(Level.FINE, "Remote server busy; resending task {0} in {1} ms.", new Object[]{task.getId(), delay});
+        // The timer thread must not do I/O, so the resend runs on the execution pool
+        TaskExecutors.timer().newTimeout(() -> TaskExecutors.executionPool().execute(() -> {
+            buffer(task, outcome);
+            flushSubmissions();
+        }), delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Start pinging the executor every interval; each PONG carries its telemetry even when no tasks are flowing
+    public synchronized void startHeartbeat(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Heartbeat interval must be positive");
+        }
+        boolean wasStopped = heartbeatIntervalMillis == 0;
+        heartbeatIntervalMillis = intervalMillis;
+        if (wasStopped) {
+            scheduleHeartbeat();
+        }
+    }
+
+    public synchronized void stopHeartbeat() {
+        heartbeatIntervalMillis = 0;
+        HashedWheelTimer.Timeout pending = nextHeartbeat;
+        if (pending != null) {
+            pending.cancel();
+        }
+    }
+
+    private void scheduleHeartbeat() {
+        long interval = heartbeatIntervalMillis;
+        if (interval > 0) {
+            // The timer thread must not do I/O, so the ping is sent from the execution pool
+            nextHeartbeat = TaskExecutors.timer().newTimeout(
+                    () -> TaskExecutors.executionPool().execute(this::heartbeat), interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void heartbeat() {
+        CompletableFuture<RemoteResponse> pong;
+        try {
+            pong = connectionPool.connection().ping(Math.max(heartbeatIntervalMillis, 1), TimeUnit.MILLISECONDS);
+        } catch (IOException e) {
+            pong = CompletableFuture.failedFuture(e);
+        }
+        pong.whenComplete((reply, error) -> {
+            if (reply != null) {
+                updateTelemetry(reply.getTelemetry());
+                recordSuccess();
+            } else {
+                logger.log(Level.FINE, "Heartbeat to {0} failed: {1}", new Object[]{this, error.getMessage()});
+                recordFailure();
+            }
+            scheduleHeartbeat();
+        });
+    }
+
+    // A heartbeat or request failed; after enough in a row the server is suspected down. Its connections are
+    // closed so requests stuck on them fail now and their tasks are handed to healthy servers.
+    private void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= suspectAfterFailures && !suspected) {
+            synchronized (this) {
+                if (suspected) {
+                    return;
+                }
+                suspected = true;
+            }
+            logger.log(Level.WARNING, "{0} suspected down after {1} consecutive failures.", new Object[]{this, consecutiveFailures.get()});
+            connectionPool.closeConnections();
+            ServerHealthListener listener = healthListener;
+            if (listener != null) {
+                listener.onServerDown(this);
+            }
+        }
+    }
+
+    // A heartbeat or request succeeded; a suspected server is reported up again
+    private void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (suspected) {
+            synchronized (this) {
+                if (!suspected) {
+                    return;
+                }
+                suspected = false;
+            }
+            logger.log(Level.INFO, "{0} is answering again.", this);
+            ServerHealthListener listener = healthListener;
+            if (listener != null) {
+                listener.onServerUp(this);
+            }
+        }
+    }
+
+    // Whether failure detection currently considers this server down
+    public boolean isSuspected() {
+        return suspected;
+    }
+
+    // Register the listener told when this server is suspected down or recovers
+    public void setHealthListener(ServerHealthListener healthListener) {
+        this.healthListener = healthListener;
+    }
+
+    // Number of consecutive heartbeat or request failures after which the server is suspected down
+    public void setSuspectAfterFailures(int suspectAfterFailures) {
+        this.suspectAfterFailures = suspectAfterFailures;
+    }
+
+    // Record the executor's latest load and let the scheduler re-rank this server if it moved
+    private void updateTelemetry(ExecutorTelemetry latest) {
+        ExecutorTelemetry previous = telemetry;
+        telemetry = latest;
+        if (latest.estimatedBacklogMillis() != previous.estimatedBacklogMillis()) {
+            notifyLoadChanged();
+        }
+    }
+
+    // Latest telemetry reported by the executor
+    public ExecutorTelemetry getTelemetry() {
+        return telemetry;
+    }
+
+    // Tasks still queued on this client plus the work the executor reports it is already busy with,
+    // so a saturated executor ranks as loaded even when this client has nothing queued for it
+    @Override
+    public long getTotalLoad() {
+        return super.getTotalLoad() + telemetry.estimatedBacklogMillis();
+    }
+
+    // Number of BUSY answers a task may receive before it is given back to the scheduler
+    public void setMaxBusyRetries(int maxBusyRetries) {
+        this.maxBusyRetries = maxBusyRetries;
+    }
+
+    // The pool of connections this server sends its tasks over
+    public RemoteConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    // Maximum number of tasks awaiting a reply at once
+    public int getInFlightWindow() {
+        return inFlightWindow;
+    }
+
+    // Tasks buffered or awaiting their reply right now
+    public int getInFlightCount() {
+        return inFlightWindow - window.availablePermits();
+    }
+
+    // Missed heartbeats or failed requests since the last success
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public String getRemoteAddress() {
+        return remoteHost + ":" + remotePort;
+    }
 
-        return completedTasks;
+    // Maximum number of tasks sent in one BATCH frame
+    public int getMaxBatchSize() {
+        return maxBatchSize;
     }
 
     @Override
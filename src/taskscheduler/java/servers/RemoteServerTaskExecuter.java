@@ -1,78 +1,509 @@
 package taskscheduler.java.servers;
 
+import taskscheduler.java.concurrent.TaskExecutors;
 import taskscheduler.java.exceptions.TaskException;
+import taskscheduler.java.other.LatencyWindow;
+import taskscheduler.java.protocol.ExecutorTelemetry;
+import taskscheduler.java.protocol.RemoteRequest;
+import taskscheduler.java.protocol.RemoteResponse;
+import taskscheduler.java.protocol.WireCodec;
 import taskscheduler.java.tasks.Task;
 
-import java.io.*;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+// Executes tasks sent by RemoteServers. All connections are served by one selector thread doing non-blocking
+// I/O, so idle and slow clients cost a buffer each rather than a thread. Decoded tasks run on a bounded worker
+// pool. Once its queue reaches the busy threshold, new tasks are answered BUSY with a retry-after hint instead
+// of being queued, so clients back off or go elsewhere before latency on this node climbs.
 public class RemoteServerTaskExecuter {
 
     private static final Logger logger = Logger.getLogger(RemoteServerTaskExecuter.class.getName());
 
-    public static void main(String[] args) {
-        try (ServerSocket serverSocket = new ServerSocket(12345)) {
-            logger.log(Level.INFO, "Task Execution Server is listening on port 12345");
+    public static final int DEFAULT_PORT = 12345;
+    public static final int DEFAULT_BACKLOG = 1024;
+    public static final int DEFAULT_MAX_QUEUED_TASKS = 10_000;
+    public static final long DEFAULT_RETRY_AFTER_MILLIS = 100;
+    public static final int DEDUPE_CAPACITY = 10_000;  // Recent task IDs remembered for idempotency
 
-            while (true) {
-                Socket socket = serverSocket.accept();  // Wait for client connections
-                new TaskHandler(socket).start();  // Handle each connection in a new thread
+    private final int port;
+    private final int backlog;
+    private final int maxConcurrentTasks;
+    private final int maxQueuedTasks;
+    private final int busyThreshold;  // Queue depth at which new tasks are shed
+    private volatile long retryAfterMillis = DEFAULT_RETRY_AFTER_MILLIS;
+
+    // Admission metrics
+    private final LongAdder admittedTasks = new LongAdder();
+    private final LongAdder shedTasks = new LongAdder();
+
+    // Tasks are idempotent by ID: a task resent while it runs, or after it succeeded here, is answered with that
+    // run's status instead of running again. Failed runs are not remembered, so client retries do run.
+    private final Map<String, CompletableFuture<RemoteResponse.Status>> recentTasks =
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<RemoteResponse.Status>> eldest) {
+                    return size() > DEDUPE_CAPACITY;
+                }
+            };
+    private final LongAdder duplicateTasks = new LongAdder();
+
+    // Recent execution times for the telemetry sent with every reply
+    private static final long TELEMETRY_REFRESH_MILLIS = 100;
+    private final LatencyWindow executionTimes = new LatencyWindow(1024);
+    private volatile long[] percentiles = new long[2];
+    private volatile long percentilesComputedAt = System.nanoTime();
+
+    private ServerSocketChannel serverChannel;
+    private Selector selector;
+    private ThreadPoolExecutor workers;
+    private Thread selectorThread;
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();  // Have replies to send
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile boolean draining;  // Set by shutdown(): no new connections or requests
+
+    // Creates an executor that sheds load only once its queue is full
+    public RemoteServerTaskExecuter(int port, int backlog, int maxConcurrentTasks, int maxQueuedTasks) {
+        this(port, backlog, maxConcurrentTasks, maxQueuedTasks, maxQueuedTasks);
+    }
+
+    // Creates an executor that answers BUSY once busyThreshold tasks are waiting for a worker
+    public RemoteServerTaskExecuter(int port, int backlog, int maxConcurrentTasks, int maxQueuedTasks, int busyThreshold) {
+        if (maxConcurrentTasks < 1 || maxQueuedTasks < 1 || busyThreshold < 0) {
+            throw new IllegalArgumentException("Concurrent and queued task limits must be at least 1");
+        }
+        this.port = port;
+        this.backlog = backlog;
+        this.maxConcurrentTasks = maxConcurrentTasks;
+        this.maxQueuedTasks = maxQueuedTasks;
+        this.busyThreshold = Math.min(busyThreshold, maxQueuedTasks);
+    }
+
+    // Usage: RemoteServerTaskExecuter [port] [maxConcurrentTasks]
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxConcurrentTasks = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        RemoteServerTaskExecuter executer = new RemoteServerTaskExecuter(port, DEFAULT_BACKLOG, maxConcurrentTasks,
+                DEFAULT_MAX_QUEUED_TASKS, DEFAULT_MAX_QUEUED_TASKS * 4 / 5);
+        executer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> executer.shutdown(30, TimeUnit.SECONDS)));
+        executer.awaitTermination();
+    }
+
+    // Bind the port and start serving; returns once the executor is accepting connections
+    public synchronized void start() throws IOException {
+        if (selectorThread != null) {
+            throw new IllegalStateException("Executor already started");
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), backlog);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        workers = new ThreadPoolExecutor(maxConcurrentTasks, maxConcurrentTasks, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedTasks), TaskExecutors.daemonThreadFactory("executer-worker"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        selectorThread = new Thread(this::runSelector, "executer-selector");
+        selectorThread.start();
+        logger.log(Level.INFO, "Task Execution Server is listening on port {0}", String.valueOf(getPort()));
+    }
+
+    // The bound port, which differs from the configured one when that was 0
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    // Stop accepting connections and requests, let running and queued tasks finish and their replies be sent,
+    // then close every connection. Returns false if that did not complete within the timeout.
+    public boolean shutdown(long timeout, TimeUnit unit) {
+        if (selectorThread == null) {
+            return true;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        draining = true;
+        selector.wakeup();  // The selector thread closes the server channel
+        workers.shutdown();
+        try {
+            boolean finished = workers.awaitTermination(timeout, unit);
+            if (!finished) {
+                workers.shutdownNow();
+            }
+            selector.wakeup();
+            long remaining = deadline - System.nanoTime();
+            return terminated.await(Math.max(0, remaining), TimeUnit.NANOSECONDS) && finished;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            if (terminated.getCount() > 0) {
+                closeAll();  // Replies could not all be flushed in time
             }
+        }
+    }
 
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, "Server exception: " + e.getMessage());
+    // Block until the executor has shut down
+    public void awaitTermination() throws InterruptedException {
+        terminated.await();
+    }
+
+    // Tasks accepted and waiting for a worker
+    public int getQueuedTaskCount() {
+        return workers == null ? 0 : workers.getQueue().size();
+    }
+
+    // Tasks currently executing
+    public int getRunningTaskCount() {
+        return workers == null ? 0 : workers.getActiveCount();
+    }
+
+    // Record a run of the task unless one is in progress or succeeded; returns that earlier run if so
+    private CompletableFuture<RemoteResponse.Status> claim(String taskId, CompletableFuture<RemoteResponse.Status> run) {
+        synchronized (recentTasks) {
+            CompletableFuture<RemoteResponse.Status> earlier = recentTasks.get(taskId);
+            if (earlier != null) {
+                return earlier;
+            }
+            recentTasks.put(taskId, run);
+            return null;
         }
     }
-}
 
-// Handles incoming task execution requests
-class TaskHandler extends Thread {
-    private final Socket socket;
-    private static final Logger logger = Logger.getLogger(TaskHandler.class.getName());
+    // Forget a run that did not succeed, so the task may run again
+    private void release(String taskId, CompletableFuture<RemoteResponse.Status> run) {
+        synchronized (recentTasks) {
+            recentTasks.remove(taskId, run);
+        }
+    }
+
+    // Tasks answered from an earlier run instead of running again
+    public long getDuplicateTaskCount() {
+        return duplicateTasks.sum();
+    }
+
+    // Live load reported to clients. Percentiles are recomputed at most every TELEMETRY_REFRESH_MILLIS,
+    // so replies stay cheap however many are sent; queue depth and running count are always current.
+    public ExecutorTelemetry telemetry() {
+        long now = System.nanoTime();
+        if (now - percentilesComputedAt > TimeUnit.MILLISECONDS.toNanos(TELEMETRY_REFRESH_MILLIS)) {
+            percentiles = executionTimes.percentiles(50, 99);
+            percentilesComputedAt = now;
+        }
+        long[] current = percentiles;
+        return new ExecutorTelemetry(getQueuedTaskCount(), getRunningTaskCount(), maxConcurrentTasks,
+                (int) Math.min(Integer.MAX_VALUE, current[0]), (int) Math.min(Integer.MAX_VALUE, current[1]));
+    }
 
-    public TaskHandler(Socket socket) {
-        this.socket = socket;
+    // Tasks admitted to the worker queue since start
+    public long getAdmittedTaskCount() {
+        return admittedTasks.sum();
     }
 
-    @Override
-    public void run() {
-        try (ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
-             ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream())) {
+    // Tasks answered BUSY since start
+    public long getShedTaskCount() {
+        return shedTasks.sum();
+    }
 
-            // Read the task from the client (RemoteServer)
-            Task task = (Task) in.readObject();
-            logger.log(Level.INFO, "Received task: {0}", task.getId());
+    // Delay suggested to clients whose tasks were answered BUSY
+    public void setRetryAfterMillis(long retryAfterMillis) {
+        this.retryAfterMillis = retryAfterMillis;
+    }
 
-            // Execute the task
-            try {
-                task.execute();  // Execute the task
-                out.writeObject("ACK");  // Send an acknowledgment back to the client
-                out.flush();
-                logger.log(Level.INFO, "Task {0} executed successfully.", task.getId());
-            } catch (TaskException e) {
-                logger.log(Level.SEVERE, "Task {0} execution failed: {1}", new Object[]{task.getId(), e.getMessage()});
-                out.writeObject("FAILED");
-                out.flush();
-            }
-
-        } catch (IOException | ClassNotFoundException e) {
-            logger.log(Level.SEVERE, "Exception while handling task: {0}", e.getMessage());
-            try {
-                ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
-                out.writeObject("FAILED");
-                out.flush();
-            } catch (IOException ioException) {
-                logger.log(Level.SEVERE, "Failed to send failure response: {0}", ioException.getMessage());
+    // Client connections currently open
+    public int getOpenConnectionCount() {
+        return openConnections.get();
+    }
+
+    private void runSelector() {
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+                Connection connection;
+                while ((connection = pendingWrites.poll()) != null) {
+                    connection.enableWrites();
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection client = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                client.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                client.write();
+                            }
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        if (key.attachment() instanceof Connection client) {
+                            logger.log(Level.FINE, "Closing connection: {0}", e.getMessage());
+                            client.close();
+                        }
+                    }
+                }
+
+                if (draining && serverChannel.isOpen()) {
+                    serverChannel.close();
+                }
+                if (draining && workers.isTerminated() && allRepliesSent()) {
+                    break;
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (!draining) {
+                logger.log(Level.SEVERE, "Server exception: {0}", e.getMessage());
             }
         } finally {
+            closeAll();
+        }
+    }
+
+    private boolean allRepliesSent() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection client && client.hasPendingReplies()) {
+                return false;
+            }
+        }
+        return pendingWrites.isEmpty();
+    }
+
+    private synchronized void closeAll() {
+        if (terminated.getCount() == 0) {
+            return;
+        }
+        try {
+            serverChannel.close();
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection client) {
+                    client.close();
+                }
+            }
+            selector.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to close executor channels: {0}", e.getMessage());
+        }
+        workers.shutdownNow();
+        terminated.countDown();
+        logger.log(Level.INFO, "Task Execution Server on port {0} stopped.", String.valueOf(port));
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            if (draining) {
+                channel.close();
+                continue;
+            }
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.socket().setKeepAlive(true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            openConnections.incrementAndGet();
+        }
+    }
+
+    // Per-client state. read(), write() and enableWrites() run on the selector thread; workers only queue replies.
+    private final class Connection {
+        private final SocketChannel channel;
+        private final WireCodec codec = new WireCodec();
+        private final Queue<RemoteResponse> replies = new ConcurrentLinkedQueue<>();
+        private ByteBuffer readBuffer = ByteBuffer.allocate(512);
+        private ByteBuffer writing;  // Frame partly written, still owned by the codec
+        private SelectionKey key;
+        private boolean closed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        // Read what is available and dispatch every complete frame
+        private void read() throws IOException {
+            if (channel.read(readBuffer) < 0) {
+                close();
+                return;
+            }
+            readBuffer.flip();
+            while (readBuffer.remaining() >= 4) {
+                int length = WireCodec.checkLength(readBuffer.getInt(readBuffer.position()));
+                if (readBuffer.remaining() < 4 + length) {
+                    break;
+                }
+                ByteBuffer frame = ByteBuffer.wrap(readBuffer.array(), readBuffer.position() + 4, length);
+                readBuffer.position(readBuffer.position() + 4 + length);
+                dispatch(codec.decodeRequest(frame));
+            }
+            readBuffer.compact();
+            if (!readBuffer.hasRemaining()) {
+                // Grow to hold the frame being read, which is larger than the buffer
+                int needed = 4 + WireCodec.checkLength(readBuffer.getInt(0));
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(needed, readBuffer.capacity() * 2));
+                readBuffer.flip();
+                grown.put(readBuffer);
+                readBuffer = grown;
+            }
+        }
+
+        private void dispatch(RemoteRequest request) {
+            if (request.getType() == RemoteRequest.Type.PING) {
+                reply(request.getRequestId(), List.of(RemoteResponse.Status.PONG));
+                return;
+            }
+            if (request.getTasks().isEmpty()) {
+                reply(request.getRequestId(), List.of());
+                return;
+            }
+            PendingReply pending = new PendingReply(this, request);
+            for (int i = 0; i < request.getTasks().size(); i++) {
+                Task task = request.getTasks().get(i);
+                int index = i;
+                if (task == null || draining) {
+                    pending.complete(index, RemoteResponse.Status.FAILED);  // No codec for its type, or shutting down
+                    continue;
+                }
+                CompletableFuture<RemoteResponse.Status> run = new CompletableFuture<>();
+                CompletableFuture<RemoteResponse.Status> earlier = claim(task.getId(), run);
+                if (earlier != null) {
+                    duplicateTasks.increment();
+                    logger.log(Level.FINE, "Task {0} already ran or is running here; reusing its result.", task.getId());
+                    earlier.thenAccept(status -> pending.complete(index, status));
+                    continue;
+                }
+                if (workers.getQueue().size() >= busyThreshold && workers.getActiveCount() >= maxConcurrentTasks) {
+                    release(task.getId(), run);
+                    shed(task, pending, index);
+                    continue;
+                }
+                try {
+                    workers.execute(() -> {
+                        RemoteResponse.Status status = execute(task);
+                        if (status != RemoteResponse.Status.ACK) {
+                            release(task.getId(), run);
+                        }
+                        run.complete(status);
+                        pending.complete(index, status);
+                    });
+                    admittedTasks.increment();
+                } catch (RejectedExecutionException e) {
+                    release(task.getId(), run);
+                    shed(task, pending, index);  // The queue filled up between the check and the submit
+                }
+            }
+        }
+
+        private void shed(Task task, PendingReply pending, int index) {
+            shedTasks.increment();
+            logger.log(Level.FINE, "Executor busy; shedding task {0}.", task.getId());
+            pending.complete(index, RemoteResponse.Status.BUSY);
+        }
+
+        // Queue a reply carrying the current telemetry; called from workers, so the selector thread is woken to send it
+        private void reply(long requestId, List<RemoteResponse.Status> statuses) {
+            replies.add(new RemoteResponse(requestId, statuses, retryAfterMillis, telemetry()));
+            pendingWrites.add(this);
+            selector.wakeup();
+        }
+
+        private void enableWrites() {
+            if (key.isValid()) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+
+        // Write queued replies until the socket buffer fills, then wait for the next write readiness
+        private void write() throws IOException {
+            while (true) {
+                if (writing == null) {
+                    RemoteResponse response = replies.poll();
+                    if (response == null) {
+                        key.interestOps(SelectionKey.OP_READ);
+                        return;
+                    }
+                    writing = codec.encode(response);
+                }
+                channel.write(writing);
+                if (writing.hasRemaining()) {
+                    return;
+                }
+                writing = null;
+            }
+        }
+
+        private boolean hasPendingReplies() {
+            return !closed && (writing != null || !replies.isEmpty());
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            openConnections.decrementAndGet();
+            key.cancel();
             try {
-                socket.close();  // Ensure socket is closed after task execution
+                channel.close();
             } catch (IOException e) {
-                logger.log(Level.SEVERE, "Failed to close socket: {0}", e.getMessage());
+                logger.log(Level.FINE, "Failed to close socket: {0}", e.getMessage());
             }
         }
     }
+
+    // Collects the statuses of a request's tasks and replies once the last one is known
+    private final class PendingReply {
+        private final Connection connection;
+        private final long requestId;
+        private final RemoteResponse.Status[] statuses;
+        private final AtomicInteger remaining;
+
+        private PendingReply(Connection connection, RemoteRequest request) {
+            this.connection = connection;
+            this.requestId = request.getRequestId();
+            this.statuses = new RemoteResponse.Status[request.getTasks().size()];
+            this.remaining = new AtomicInteger(statuses.length);
+        }
+
+        private void complete(int index, RemoteResponse.Status status) {
+            statuses[index] = status;
+            if (remaining.decrementAndGet() == 0) {
+                connection.reply(requestId, List.of(statuses));
+            }
+        }
+    }
+
+    // Execute one task and return the status to send back
+    private RemoteResponse.Status execute(Task task) {
+        logger.log(Level.FINE, "Received task: {0}", task.getId());
+        long started = System.nanoTime();
+        try {
+            task.execute();  // Execute the task
+            executionTimes.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            logger.log(Level.FINE, "Task {0} executed successfully.", task.getId());
+            return RemoteResponse.Status.ACK;
+        } catch (TaskException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Task {0} execution failed: {1}", new Object[]{task.getId(), e.getMessage()});
+            return RemoteResponse.Status.FAILED;
+        }
+    }
 }
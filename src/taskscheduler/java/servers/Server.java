@@ -1,19 +1,34 @@
 package taskscheduler.java.servers;
 
+import taskscheduler.java.concurrent.TaskExecutors;
 import taskscheduler.java.other.AlertSystem;
 import taskscheduler.java.other.PerformanceMonitor;
 import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.other.TaskPriority;
 import taskscheduler.java.exceptions.SchedulerFullException;
+import taskscheduler.java.exceptions.ServerBusyException;
+import taskscheduler.java.exceptions.ServerUnavailableException;
+import taskscheduler.java.scheduling.CompletionRegistry;
+import taskscheduler.java.scheduling.DeadLetterQueue;
+import taskscheduler.java.scheduling.DependencyGraph;
 import taskscheduler.java.exceptions.ServerException;
 import taskscheduler.java.exceptions.TaskException;
 import taskscheduler.java.tasks.Task;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -21,140 +36,985 @@ public class Server {
 
     private static final Logger logger = Logger.getLogger(Server.class.getName());
 
-    public static final BigInteger DEFAULT_MAX_CAPACITY = BigInteger.valueOf(30000);
-    private BigInteger remainingCapacity = DEFAULT_MAX_CAPACITY;
+    public static final long DEFAULT_MAX_CAPACITY = 30000;  // Capacity in milliseconds of estimated work
+    private static final AtomicInteger SERVER_IDS = new AtomicInteger();
+
+    private final String name;  // Unique within the process, e.g. for naming its MBean
+    private final AtomicLong remainingCapacity = new AtomicLong(DEFAULT_MAX_CAPACITY);
+
+    // Sum of the estimated durations of queued tasks, maintained incrementally on every queue change
+    private final AtomicLong totalLoad = new AtomicLong();
+    private volatile ServerLoadListener loadListener;  // Notified whenever totalLoad changes
+    private volatile RejectedTaskHandler rejectedTaskHandler;  // Takes tasks this server is too busy to run
 
     private final RetryPolicy retryPolicy;  // Retry policy for tasks
     private final PerformanceMonitor performanceMonitor;  // Performance monitor for this server
 
+    // Number of workers draining the queue concurrently; 1 runs tasks on the calling thread
+    private final int workerCount;
+    private ExecutorService workers;  // Created lazily on the first concurrent execution
+
+    // Retries currently waiting for their delay to elapse, bounded by the retry policy's budget
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+
     // PriorityQueue to hold tasks, ordered by their priority (HIGH -> MEDIUM -> LOW)
     private final PriorityBlockingQueue<Task> tasks = new PriorityBlockingQueue<>(
             11,
             (t1, t2) -> t2.getPriority().ordinal() - t1.getPriority().ordinal()
     );
 
-    // List to track completed tasks
-    private final List<Task> completedTasks = new ArrayList<>();
+    // Queued tasks per priority (indexed by ordinal), maintained alongside the queue so depth is read without copying it
+    private final AtomicIntegerArray queuedByPriority = new AtomicIntegerArray(TaskPriority.values().length);
+
+    // List to track completed tasks (shared between workers)
+    private final List<Task> completedTasks = Collections.synchronizedList(new ArrayList<>());
+
+    // Hash index of completed task IDs for O(1) dependency lookups
+    private final Set<String> completedTaskIds = ConcurrentHashMap.newKeySet();
+
+    // Tasks that failed for good, with the reason; they leave the queue so later passes do not run them again
+    private final DeadLetterQueue deadLetters = new DeadLetterQueue();
+
+    // Cluster-wide completions, set when the server joins a scheduler
+    private volatile CompletionRegistry completionRegistry;
+    private final Set<String> awaitedDependencies = ConcurrentHashMap.newKeySet();  // Subscribed in the registry
+    private volatile DependencyGraph activeGraph;  // Graph of the pass currently executing, if any
+    private final AtomicBoolean releasedTasks = new AtomicBoolean();  // A dependency completed after its pass ended
+
+    // Tasks cancelled while a pass may still hand them out; the pass drops them instead of running them
+    private final Set<Task> cancelledTasks = ConcurrentHashMap.newKeySet();
+    private final Map<Task, Thread> runningThreads = new ConcurrentHashMap<>();  // Workers running a local attempt
+    private final Map<Task, Long> enqueuedAt = new ConcurrentHashMap<>();  // nanoTime each task was queued, until it starts
 
-    // List to track failed tasks
-    private final List<Task> failedTasks = new ArrayList<>();
+    // Continuous dispatch: a pass over an open graph that new tasks join as soon as they are added
+    private final Object dispatchLock = new Object();
+    private volatile ExecutionPass dispatchPass;  // Set while dispatching and accepting tasks
+    private ExecutionPass stoppingPass;  // Pass being stopped or drained, guarded by dispatchLock
+    private final List<Future<?>> dispatchWorkers = new ArrayList<>();  // Guarded by dispatchLock
+
+    // While paused, workers start no new attempts; attempts already running finish
+    private volatile boolean paused;
+    private final Object pauseLock = new Object();
 
     public Server(RetryPolicy retryPolicy) {
+        this(retryPolicy, 1);
+    }
+
+    // Creates a server whose executeTasks() drains the queue with the given number of workers
+    public Server(RetryPolicy retryPolicy, int workerCount) {
+        this(retryPolicy, workerCount, new AlertSystem());  // Alert system for triggering alerts
+    }
+
+    // Creates a server that raises its alerts through the given alert system
+    public Server(RetryPolicy retryPolicy, int workerCount, AlertSystem alertSystem) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1");
+        }
+        this.name = "server-" + SERVER_IDS.incrementAndGet();
         this.retryPolicy = retryPolicy;  // Set retry policy
-        // Alert system for triggering alerts
-        this.performanceMonitor = new PerformanceMonitor(this, new AlertSystem());  // Initialize the performance monitor
+        this.workerCount = workerCount;
+        this.performanceMonitor = new PerformanceMonitor(this, Objects.requireNonNull(alertSystem, "Alert system cannot be null"));
+        performanceMonitor.startEvaluation(PerformanceMonitor.DEFAULT_TICK_MILLIS);  // Alerts are evaluated on a tick, not per task
     }
 
     // Method to add a task to the server's task list with monitoring
     public void addTask(Task task) throws ServerException {
         Objects.requireNonNull(task, "Task cannot be null");
 
-        if (getRemainingCapacity().intValue() - task.getEstimatedDuration().getDuration().intValue() < 0) {
+        long duration = task.getEstimatedDuration().toMillis();
+        long updated = reserveCapacity(duration);
+        if (updated < 0) {
             throw new SchedulerFullException("This server is full");
         }
 
+        enqueuedAt.put(task, System.nanoTime());
         tasks.add(task);  // Safely adds the non-null task
-        remainingCapacity = remainingCapacity.subtract(task.getEstimatedDuration().getDuration());
-        logger.log(Level.INFO, "Task {0} added to server. Remaining capacity: {1}", new Object[]{task.getId(), remainingCapacity});
+        countQueued(task, 1);
+        adjustLoad(duration);
+        dispatch(List.of(task));
+        logger.log(Level.INFO, "Task {0} added to server. Remaining capacity: {1}", new Object[]{task.getId(), updated});
+    }
+
+    // Add many tasks at once: capacity is reserved per task, but the queue, load listener,
+    // logging and monitoring are each touched once for the whole batch. Returns the tasks that did not fit.
+    public List<Task> addTasks(Collection<? extends Task> newTasks) {
+        Objects.requireNonNull(newTasks, "Tasks cannot be null");
+
+        List<Task> accepted = new ArrayList<>(newTasks.size());
+        List<Task> rejected = new ArrayList<>();
+        long addedLoad = 0;
+        for (Task task : newTasks) {
+            Objects.requireNonNull(task, "Task cannot be null");
+            long duration = task.getEstimatedDuration().toMillis();
+            if (reserveCapacity(duration) < 0) {
+                rejected.add(task);
+            } else {
+                accepted.add(task);
+                addedLoad += duration;
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            long now = System.nanoTime();
+            accepted.forEach(task -> enqueuedAt.put(task, now));
+            tasks.addAll(accepted);
+            accepted.forEach(task -> countQueued(task, 1));
+            adjustLoad(addedLoad);
+            dispatch(accepted);
+            logger.log(Level.INFO, "{0} tasks added to server, {1} rejected. Remaining capacity: {2}",
+                    new Object[]{accepted.size(), rejected.size(), remainingCapacity.get()});
+        }
+        return rejected;
+    }
+
+    // Hand newly queued tasks to the running dispatcher, if any, so an idle worker picks them up at once
+    private void dispatch(List<Task> added) {
+        if (dispatchPass == null) {
+            return;
+        }
+        synchronized (dispatchLock) {
+            ExecutionPass pass = dispatchPass;
+            if (pass == null) {
+                return;  // Stopped meanwhile; the tasks stay queued for the next pass
+            }
+            for (Task task : added) {
+                if (pass.graph.add(task, this::isDependencyCompleted, this::isDependencyPending)) {
+                    awaitExternalDependencies(task);
+                } else {
+                    pass.failed.add(task);
+                    deadLetter(task, "Unmet dependencies", 0);
+                    logger.log(Level.WARNING, "Task {0} skipped due to unmet dependencies.", task.getId());
+                }
+            }
+        }
+        settle(dispatchPass);
+    }
+
+    // Subscribe to the dependencies of a dispatched task that are still queued on other servers
+    private void awaitExternalDependencies(Task task) {
+        CompletionRegistry registry = completionRegistry;
+        for (String dependencyId : task.getDependencies()) {
+            if (!isDependencyCompleted(dependencyId) && isDependencyPending(dependencyId) && awaitedDependencies.add(dependencyId)) {
+                registry.subscribe(dependencyId, this::onExternalDependencyResolved);
+            }
+        }
+    }
+
+    // Reserve capacity atomically so concurrent producers cannot overbook the server.
+    // Returns the capacity left after the reservation, or -1 if the duration does not fit.
+    private long reserveCapacity(long duration) {
+        long current;
+        long updated;
+        do {
+            current = remainingCapacity.get();
+            updated = current - duration;
+            if (updated < 0) {
+                return -1;
+            }
+        } while (!remainingCapacity.compareAndSet(current, updated));
+        return updated;
+    }
+
+    // Remove finished tasks from the queue, releasing the load they contributed; returns the load released
+    private long removeTasks(Collection<Task> finished) {
+        if (finished.isEmpty()) {
+            return 0;
+        }
+        Set<Task> toRemove = new HashSet<>(finished);
+        long[] released = new long[1];
+        tasks.removeIf(task -> {
+            if (toRemove.contains(task)) {
+                released[0] += task.getEstimatedDuration().toMillis();
+                enqueuedAt.remove(task);
+                countQueued(task, -1);
+                return true;
+            }
+            return false;
+        });
+        adjustLoad(-released[0]);
+        return released[0];
+    }
+
+    private void countQueued(Task task, int delta) {
+        queuedByPriority.addAndGet(task.getPriority().ordinal(), delta);
+    }
+
+    // Apply a change to the cached load and notify the listener
+    private void adjustLoad(long delta) {
+        if (delta != 0) {
+            totalLoad.addAndGet(delta);
+            notifyLoadChanged();
+        }
+    }
+
+    // Tell the listener that getTotalLoad() changed; subclasses call this when load they add to it changes
+    protected void notifyLoadChanged() {
+        ServerLoadListener listener = loadListener;
+        if (listener != null) {
+            listener.onLoadChanged(this);
+        }
+    }
+
+    // Register the listener notified when this server's load changes (one per server)
+    public void setLoadListener(ServerLoadListener loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    // Register the handler that places tasks elsewhere when this server reports itself busy
+    public void setRejectedTaskHandler(RejectedTaskHandler rejectedTaskHandler) {
+        this.rejectedTaskHandler = rejectedTaskHandler;
+    }
+
+    // Join a cluster-wide completion registry so dependencies can span servers
+    public void setCompletionRegistry(CompletionRegistry completionRegistry) {
+        this.completionRegistry = completionRegistry;
+    }
+
+    public CompletionRegistry getCompletionRegistry() {
+        return completionRegistry;
+    }
+
+    // Returns true, and clears the flag, if a dependency on another server completed after this server's
+    // last pass ended, so waiting tasks are now runnable
+    public boolean takeReleasedTasks() {
+        return releasedTasks.getAndSet(false);
+    }
+
+    // Flag that this server has runnable tasks its last pass did not see, e.g. tasks handed over by another server
+    public void markTasksReleased() {
+        releasedTasks.set(true);
+    }
+
+    // Whether a dependency has completed on this server or anywhere in the cluster
+    private boolean isDependencyCompleted(String taskId) {
+        CompletionRegistry registry = completionRegistry;
+        return completedTaskIds.contains(taskId) || (registry != null && registry.isCompleted(taskId));
+    }
 
-        // Trigger monitoring and alerting after the task is added
-        monitorAndAlert();
+    // Whether a dependency is queued on some server of the cluster and may still complete
+    private boolean isDependencyPending(String taskId) {
+        CompletionRegistry registry = completionRegistry;
+        return registry != null && registry.isPending(taskId);
     }
 
-    // Method to monitor the server and trigger alerts
-    private void monitorAndAlert() {
-        // Trigger the performance monitor, which checks various metrics and triggers alerts if needed
-        performanceMonitor.monitorAndAlert();
+    // Registry callback: release waiting tasks in the running pass, or flag them for the next one. If the
+    // dependency failed or was cancelled, its dependents are skipped instead; a later pass finds it no longer
+    // pending and dead-letters them as unmet.
+    private void onExternalDependencyResolved(String taskId, Throwable failure) {
+        awaitedDependencies.remove(taskId);
+        DependencyGraph graph = activeGraph;
+        if (failure == null) {
+            if (graph == null || !graph.externalDependencyCompleted(taskId)) {
+                releasedTasks.set(true);
+                logger.log(Level.INFO, "Dependency {0} completed on another server; waiting tasks are runnable.", taskId);
+            }
+            return;
+        }
+        if (graph == null || !graph.externalDependencyFailed(taskId)) {
+            releasedTasks.set(true);
+            logger.log(Level.INFO, "Dependency {0} did not complete on another server; waiting tasks will be skipped.", taskId);
+            return;
+        }
+        ExecutionPass pass = dispatchPass;
+        if (pass != null && pass.graph == graph) {
+            settle(pass);  // Report the skipped dependents now; a batch pass does so when it ends
+        }
     }
 
     // Retrieve the remaining capacity of the server
-    public BigInteger getRemainingCapacity() {
-        return new BigInteger(remainingCapacity.toString());  // Return a defensive copy of remaining capacity
+    public long getRemainingCapacity() {
+        return remainingCapacity.get();
     }
 
     // Set the remaining capacity of the server
-    public void setRemainingCapacity(BigInteger remainingCapacity) {
-        this.remainingCapacity = remainingCapacity;
+    public void setRemainingCapacity(long remainingCapacity) {
+        this.remainingCapacity.set(remainingCapacity);
     }
 
-    // Check if a task's dependencies are all completed
-    private boolean areDependenciesCompleted(Task task) {
-        Set<String> dependencies = task.getDependencies();
-        for (String depId : dependencies) {
-            boolean dependencyMet = completedTasks.stream().anyMatch(t -> t.getId().equals(depId));
-            if (!dependencyMet) {
-                logger.log(Level.WARNING, "Task {0} cannot be executed because dependency {1} is not completed.", new Object[]{task.getId(), depId});
-                return false;
+    // Executes all tasks in the queue, returns a list of successfully completed tasks with monitoring
+    // While the server dispatches continuously, its tasks are already running and this returns nothing.
+    public List<Task> executeTasks() throws ServerException {
+        boolean dispatching;
+        synchronized (dispatchLock) {
+            dispatching = dispatchPass != null || stoppingPass != null;
+        }
+        if (dispatching) {
+            logger.log(Level.FINE, "Server dispatches continuously; batch execution skipped.");
+            return new ArrayList<>();
+        }
+        if (paused) {
+            logger.log(Level.FINE, "Server is paused; batch execution skipped.");
+            return new ArrayList<>();
+        }
+        // Build the dependency graph over a snapshot of the queue; ready tasks are dispatched in priority order
+        DependencyGraph graph = new DependencyGraph(new ArrayList<>(tasks), this::isDependencyCompleted, this::isDependencyPending);
+        ExecutionPass pass = new ExecutionPass(graph);
+        List<Task> completedTasksThisSession = pass.completed;  // Successfully completed tasks in this session
+        List<Task> failedTasksThisSession = pass.failed;  // Failed tasks within this execution session
+        for (Task task : graph.getUnresolvedTasks()) {
+            failedTasksThisSession.add(task);  // Add task to failed list if dependencies are not met
+            deadLetter(task, "Unmet dependencies", 0);
+            logger.log(Level.WARNING, "Task {0} skipped due to unmet dependencies.", task.getId());
+        }
+        for (Task task : graph.getCyclicTasks()) {
+            failedTasksThisSession.add(task);
+            deadLetter(task, "Dependency cycle", 0);
+            logger.log(Level.SEVERE, "Task {0} skipped because its dependencies form a cycle.", task.getId());
+        }
+
+        activeGraph = graph;
+        try {
+            // Wait for dependencies queued on other servers through the registry
+            CompletionRegistry registry = completionRegistry;
+            for (String dependencyId : graph.getExternalDependencies()) {
+                if (awaitedDependencies.add(dependencyId)) {
+                    registry.subscribe(dependencyId, this::onExternalDependencyResolved);
+                }
+            }
+
+            if (workerCount == 1) {
+                try {
+                    drainTasks(pass);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServerException("Interrupted while executing tasks.", e);
+                }
+            } else {
+                runWorkers(pass);
+            }
+        } finally {
+            activeGraph = null;
+            for (Task task : graph.getSkippedTasks()) {
+                failedTasksThisSession.add(task);
+                deadLetter(task, "A dependency failed", 0);
+                logger.log(Level.WARNING, "Task {0} skipped because a dependency failed.", task.getId());
+            }
+            for (Task task : graph.getWaitingTasks()) {
+                logger.log(Level.INFO, "Task {0} is waiting on a dependency queued on another server.", task.getId());
+            }
+
+            removeTasks(completedTasksThisSession);  // Remove completed tasks from queue
+            remainingCapacity.addAndGet(removeTasks(failedTasksThisSession));  // Failed ones are in the dead-letter queue
+            cancelledTasks.removeIf(task -> !tasks.contains(task));  // Withdrawn before any pass could take them
+            logger.log(Level.INFO, "{0} tasks completed, {1} tasks failed.", new Object[]{completedTasksThisSession.size(), failedTasksThisSession.size()});
+        }
+
+        return new ArrayList<>(completedTasksThisSession);  // Return the list of successfully completed tasks in this session
+    }
+
+    // Runs the dependency graph on the worker pool and waits for every worker to finish
+    private void runWorkers(ExecutionPass pass) throws ServerException {
+        ExecutorService pool = getWorkers();
+        List<Future<?>> running = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            running.add(pool.submit(() -> {
+                drainTasks(pass);
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.forEach(worker -> worker.cancel(true));
+            throw new ServerException("Interrupted while waiting for server workers.", e);
+        } catch (ExecutionException e) {
+            running.forEach(worker -> worker.cancel(true));
+            throw new ServerException("Server worker failed while executing tasks.", e.getCause());
+        }
+    }
+
+    // State shared by the workers of one executeTasks() pass
+    private static final class ExecutionPass {
+        private final DependencyGraph graph;
+        private final List<Task> completed = Collections.synchronizedList(new ArrayList<>());
+        private final List<Task> failed = Collections.synchronizedList(new ArrayList<>());
+        private final Map<Task, Integer> attempts = new ConcurrentHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();  // Attempts submitted and not yet finished
+        private volatile ServerException failure;  // First server failure; stops a batch pass
+        private final boolean continuous;  // Outcomes are settled as they happen, not when the pass ends
+        private volatile boolean ending;  // Being stopped or drained, which overrides a pause
+
+        private ExecutionPass(DependencyGraph graph) {
+            this(graph, false);
+        }
+
+        private ExecutionPass(DependencyGraph graph, boolean continuous) {
+            this.graph = graph;
+            this.continuous = continuous;
+        }
+
+        private void attemptFinished() {
+            if (inFlight.decrementAndGet() == 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        private synchronized void awaitInFlight() throws InterruptedException {
+            while (inFlight.get() > 0) {
+                wait();
             }
         }
-        return true;
     }
 
-    // Method to execute a task with retries and monitoring
-    private boolean executeTaskWithRetries(Task task) {
-        int attempts = 0;
-        boolean taskCompleted = false;
+    // Block while the server is paused, unless the pass is being stopped or drained
+    private void awaitResumed(ExecutionPass pass) throws InterruptedException {
+        if (!paused) {
+            return;
+        }
+        flushSubmissions();  // Tasks already buffered by a subclass count as started
+        synchronized (pauseLock) {
+            while (paused && !pass.ending) {
+                pauseLock.wait();
+            }
+        }
+    }
+
+    // Takes ready tasks from the graph until every task is resolved, submitting an attempt for each one.
+    // Attempts may finish asynchronously (see submitTask), so the worker keeps dispatching ready tasks while
+    // earlier ones are in flight, and only blocks once nothing is ready. A failed attempt is re-queued on the
+    // shared delay scheduler, so the worker moves straight on to the next task.
+    private void drainTasks(ExecutionPass pass) throws InterruptedException, ServerException {
+        Task task;
+        while (pass.failure == null && (task = nextReady(pass)) != null) {
+            awaitResumed(pass);
+            Task current = task;
+            int attempt = pass.attempts.merge(current, 1, Integer::sum);
+            if (attempt > retryPolicy.getMaxRetries()) {
+                finishAttempt(pass, current, attempt, false, "Retries exhausted");
+                continue;
+            }
+            if (completedElsewhere(pass, current)) {
+                continue;
+            }
+            if (cancelledTasks.contains(current)) {
+                finishCancelled(pass, current);
+                continue;
+            }
 
-        // Retry loop for task execution based on retry policy
-        while (attempts < retryPolicy.getMaxRetries() && !taskCompleted) {
+            Long queuedAt = enqueuedAt.remove(current);  // Present only until the first attempt starts
+            long started = System.nanoTime();
+            if (queuedAt != null) {
+                performanceMonitor.recordQueueWait(current.getPriority(), (started - queuedAt) / 1000);
+            }
+
+            pass.inFlight.incrementAndGet();
+            CompletableFuture<Boolean> outcome;
             try {
-                task.execute();  // Attempt to execute the task
-                if (task.isCompleted()) {
-                    taskCompleted = true;
-                    setRemainingCapacity(getRemainingCapacity().add(task.getEstimatedDuration().getDuration()));
-                    logger.log(Level.INFO, "Task {0} completed successfully on attempt {1}. Remaining capacity: {2}",
-                            new Object[]{task.getId(), attempts + 1, remainingCapacity});
+                outcome = submitTask(current);
+            } catch (RuntimeException | Error e) {
+                outcome = CompletableFuture.failedFuture(e);
+            }
+            outcome.whenComplete((completed, error) -> {
+                if (error == null) {
+                    // Only attempts that ran; a busy or failed server says nothing about the task
+                    performanceMonitor.recordExecution(current.getPriority(), (System.nanoTime() - started) / 1000);
                 }
-            } catch (TaskException e) {
-                attempts++;
-                logger.log(Level.WARNING, "Task {0} failed on attempt {1}. {2} retries remaining.",
-                        new Object[]{task.getId(), attempts, retryPolicy.getMaxRetries() - attempts});
-
-                // Delay between retries, if specified
-                if (retryPolicy.getDelay(attempts) > 0) {
-                    try {
-                        Thread.sleep(retryPolicy.getDelay(attempts));
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
+                try {
+                    onAttemptFinished(pass, current, attempt, completed, error);
+                } finally {
+                    pass.attemptFinished();
+                }
+            });
+        }
+        flushSubmissions();
+        pass.awaitInFlight();  // Outcomes must be recorded before executeTasks() reconciles the queue
+        if (pass.failure != null) {
+            throw pass.failure;
+        }
+    }
+
+    // Tasks are idempotent by ID: one that was handed over and has since completed on another server is dropped
+    // from this queue, and its dependents released, instead of being run a second time
+    private boolean completedElsewhere(ExecutionPass pass, Task task) {
+        CompletionRegistry registry = completionRegistry;
+        if (registry == null || !registry.isCompleted(task.getId()) || completedTaskIds.contains(task.getId())) {
+            return false;
+        }
+        logger.log(Level.INFO, "Task {0} already completed on another server; not running it again.", task.getId());
+        removeTasks(List.of(task));
+        remainingCapacity.addAndGet(task.getEstimatedDuration().toMillis());
+        pass.attempts.remove(task);
+        pass.graph.markCompleted(task);
+        settle(pass);
+        return true;
+    }
+
+    // The next ready task; before blocking for one, submissions buffered by a subclass are sent
+    private Task nextReady(ExecutionPass pass) throws InterruptedException {
+        Task task = pass.graph.pollReady();
+        if (task == null) {
+            flushSubmissions();
+            task = pass.graph.takeReady();
+        }
+        return task;
+    }
+
+    // Record the result of one attempt, retrying it if the policy allows
+    private void onAttemptFinished(ExecutionPass pass, Task task, int attempt, Boolean completed, Throwable error) {
+        boolean taskCompleted = error == null && Boolean.TRUE.equals(completed);
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ServerBusyException || cause instanceof ServerUnavailableException) {
+            // Neither is a failure of the task: hand it to another server, or count it as a failed attempt if none takes it
+            if (handOff(pass, task)) {
+                return;
+            }
+            cause = null;
+        }
+        if (cause != null) {
+            ServerException failure = cause instanceof ServerException
+                    ? (ServerException) cause
+                    : new ServerException("Task " + task.getId() + " could not be executed.", cause);
+            if (pass.continuous) {
+                // A dispatcher outlives any one failure: fail the task and keep serving the rest
+                logger.log(Level.SEVERE, "Task {0} could not be executed: {1}", new Object[]{task.getId(), failure.getMessage()});
+            } else {
+                synchronized (pass) {
+                    if (pass.failure == null) {
+                        pass.failure = failure;
                     }
                 }
             }
+            finishAttempt(pass, task, attempt, false, failure.getMessage());
+            return;
         }
 
-        // After task execution, monitor and alert
-        monitorAndAlert();
+        if (!taskCompleted && cancelledTasks.contains(task)) {
+            finishCancelled(pass, task);  // Not retried; a cancelled attempt that completes anyway counts as completed
+            return;
+        }
 
-        return taskCompleted;
+        boolean retrying = false;
+        if (taskCompleted) {
+            logger.log(Level.INFO, "Task {0} completed successfully on attempt {1}.", new Object[]{task.getId(), attempt});
+        } else {
+            logger.log(Level.WARNING, "Task {0} failed on attempt {1}. {2} retries remaining.",
+                    new Object[]{task.getId(), attempt, retryPolicy.getMaxRetries() - attempt});
+            retrying = attempt < retryPolicy.getMaxRetries() && scheduleRetry(pass, task, attempt);
+        }
+        if (!retrying) {
+            String reason = attempt < retryPolicy.getMaxRetries() ? "Retry budget exhausted" : "Retries exhausted";
+            finishAttempt(pass, task, attempt, taskCompleted, taskCompleted ? null : reason);
+        }
     }
 
-    // Executes all tasks in the queue, returns a list of successfully completed tasks with monitoring
-    public List<Task> executeTasks() throws ServerException {
-        List<Task> completedTasksThisSession = new ArrayList<>();  // List to store successfully completed tasks in this session
-        List<Task> failedTasksThisSession = new ArrayList<>();  // Local list to track failed tasks within this execution session
+    // Give a task back to the scheduler for placement on another server. Dependents in this pass now wait
+    // for it through the registry. Returns false if there is no handler or no other server took the task.
+    private boolean handOff(ExecutionPass pass, Task task) {
+        RejectedTaskHandler handler = rejectedTaskHandler;
+        if (handler == null) {
+            return false;
+        }
+        removeTasks(List.of(task));
+        remainingCapacity.addAndGet(task.getEstimatedDuration().toMillis());
+        if (!handler.onTaskRejected(this, task)) {
+            // Nobody else can take it: put it back so the attempt is counted here
+            remainingCapacity.addAndGet(-task.getEstimatedDuration().toMillis());
+            tasks.add(task);
+            countQueued(task, 1);
+            adjustLoad(task.getEstimatedDuration().toMillis());
+            return false;
+        }
 
-        tasks.forEach(task -> {
-            if (areDependenciesCompleted(task)) {
-                if (executeTaskWithRetries(task)) {
-                    completedTasksThisSession.add(task);
-                } else {
-                    failedTasksThisSession.add(task);
-                    logger.log(Level.SEVERE, "Task {0} failed after {1} attempts.", new Object[]{task.getId(), retryPolicy.getMaxRetries()});
+        logger.log(Level.INFO, "Task {0} handed to another server because this one is busy.", task.getId());
+        pass.attempts.remove(task);
+        if (pass.graph.markHandedOff(task) && awaitedDependencies.add(task.getId())) {
+            CompletionRegistry registry = completionRegistry;
+            if (registry != null) {
+                registry.subscribe(task.getId(), this::onExternalDependencyResolved);
+            }
+        }
+        return true;
+    }
+
+    // Resolve a task in the graph with its final outcome; a failed task is dead-lettered with the reason
+    private void finishAttempt(ExecutionPass pass, Task task, int attempt, boolean taskCompleted, String failureReason) {
+        pass.attempts.remove(task);  // Resolved, so a continuous pass does not keep its count forever
+        performanceMonitor.recordRetries(task.getPriority(), Math.max(0, Math.min(attempt, retryPolicy.getMaxRetries()) - 1));
+        if (taskCompleted) {
+            pass.completed.add(task);
+            recordCompletion(task);  // Publish before releasing dependents
+            pass.graph.markCompleted(task);
+        } else {
+            pass.failed.add(task);
+            pass.graph.markFailed(task);  // Also resolves the task if execution threw, so other workers do not hang
+            int attempts = Math.min(attempt, retryPolicy.getMaxRetries());
+            deadLetter(task, failureReason, attempts);
+            logger.log(Level.SEVERE, "Task {0} failed after {1} attempts.", new Object[]{task.getId(), attempts});
+        }
+        settle(pass);
+    }
+
+    // Resolve a cancelled task that a pass took or that was running when it was cancelled
+    private void finishCancelled(ExecutionPass pass, Task task) {
+        pass.attempts.remove(task);
+        withdraw(task);
+        pass.graph.markFailed(task);  // Its dependents cannot run without it
+        settle(pass);
+    }
+
+    // Cancel a queued task: it is removed from the queue if no worker has taken it yet. A running local attempt
+    // is interrupted if allowed; in either case the task is not retried and its dependents are skipped.
+    // Returns false if the task is not queued on this server.
+    public boolean cancelTask(Task task, boolean mayInterruptIfRunning) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        if (!tasks.contains(task)) {
+            return false;
+        }
+        cancelledTasks.add(task);  // Checked by any pass that takes it from now on
+        DependencyGraph graph = activeGraph;
+        if (graph != null && !graph.cancel(task)) {
+            Thread worker = runningThreads.get(task);
+            if (mayInterruptIfRunning && worker != null) {
+                worker.interrupt();
+            }
+            logger.log(Level.INFO, "Task {0} is running; it will not be retried.", task.getId());
+            return true;
+        }
+        withdraw(task);
+        ExecutionPass pass = dispatchPass;
+        if (pass != null && pass.graph == graph) {
+            settle(pass);  // Report its skipped dependents now
+        }
+        return true;
+    }
+
+    // Remove a cancelled task from the queue, release its capacity and tell anyone awaiting it
+    private void withdraw(Task task) {
+        long duration = task.getEstimatedDuration().toMillis();
+        if (tasks.remove(task)) {
+            enqueuedAt.remove(task);
+            countQueued(task, -1);
+            remainingCapacity.addAndGet(duration);
+            adjustLoad(-duration);
+            logger.log(Level.INFO, "Task {0} cancelled and removed from the queue.", task.getId());
+        }
+        CompletionRegistry registry = completionRegistry;
+        if (registry != null) {
+            registry.markCancelled(task.getId());
+        }
+    }
+
+    // Apply the outcomes a continuous pass has collected so far: completed tasks leave the queue, failed and
+    // skipped ones are recorded. Batch passes do this once, when executeTasks() ends.
+    private void settle(ExecutionPass pass) {
+        if (pass == null || !pass.continuous) {
+            return;
+        }
+        List<Task> completed;
+        synchronized (pass.completed) {
+            completed = new ArrayList<>(pass.completed);
+            pass.completed.clear();
+        }
+        List<Task> failed;
+        synchronized (pass.failed) {
+            failed = new ArrayList<>(pass.failed);
+            pass.failed.clear();
+        }
+        for (Task task : pass.graph.takeSkippedTasks()) {
+            failed.add(task);
+            deadLetter(task, "A dependency failed", 0);
+            logger.log(Level.WARNING, "Task {0} skipped because a dependency failed.", task.getId());
+        }
+        removeTasks(completed);
+        remainingCapacity.addAndGet(removeTasks(failed));
+    }
+
+    // Start continuous dispatch: the server's workers take tasks as soon as they are queued, honouring
+    // priorities and dependencies, until stopDispatching() or drain(). Has no effect if already dispatching.
+    public void startDispatching() {
+        synchronized (dispatchLock) {
+            if (dispatchPass != null || stoppingPass != null) {
+                return;
+            }
+            DependencyGraph graph = new DependencyGraph(new ArrayList<>(tasks), this::isDependencyCompleted, this::isDependencyPending, true);
+            ExecutionPass pass = new ExecutionPass(graph, true);
+            for (Task task : graph.getUnresolvedTasks()) {
+                pass.failed.add(task);
+                deadLetter(task, "Unmet dependencies", 0);
+                logger.log(Level.WARNING, "Task {0} skipped due to unmet dependencies.", task.getId());
+            }
+            for (Task task : graph.getCyclicTasks()) {
+                pass.failed.add(task);
+                deadLetter(task, "Dependency cycle", 0);
+                logger.log(Level.SEVERE, "Task {0} skipped because its dependencies form a cycle.", task.getId());
+            }
+            CompletionRegistry registry = completionRegistry;
+            for (String dependencyId : graph.getExternalDependencies()) {
+                if (awaitedDependencies.add(dependencyId)) {
+                    registry.subscribe(dependencyId, this::onExternalDependencyResolved);
                 }
+            }
+
+            activeGraph = graph;
+            dispatchPass = pass;
+            ExecutorService pool = getWorkers();
+            for (int i = 0; i < workerCount; i++) {
+                dispatchWorkers.add(pool.submit(() -> runDispatcher(pass)));
+            }
+            logger.log(Level.INFO, "Server dispatching continuously with {0} workers.", workerCount);
+        }
+        settle(dispatchPass);
+    }
+
+    // One dispatcher worker: drains the open graph until it is stopped or drained
+    private void runDispatcher(ExecutionPass pass) {
+        try {
+            drainTasks(pass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ServerException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Dispatcher worker failed: {0}", e.getMessage());
+        }
+    }
+
+    // Stop continuous dispatch: no further tasks are started, running ones finish, and the rest stay queued
+    // for a later batch or dispatch. Waits for the workers to finish.
+    public void stopDispatching() throws InterruptedException {
+        endDispatching(true);
+    }
+
+    // Stop taking new tasks into the dispatcher and wait until the tasks it already has are resolved.
+    // Tasks added meanwhile, and tasks still waiting on other servers, stay queued.
+    public void drain() throws InterruptedException {
+        endDispatching(false);
+    }
+
+    private void endDispatching(boolean stop) throws InterruptedException {
+        ExecutionPass pass;
+        List<Future<?>> running;
+        synchronized (dispatchLock) {
+            pass = dispatchPass != null ? dispatchPass : stoppingPass;
+            if (pass == null) {
+                return;
+            }
+            dispatchPass = null;  // New tasks stay in the queue from here on
+            stoppingPass = pass;
+            pass.ending = true;
+            if (stop) {
+                pass.graph.stop();
             } else {
-                failedTasksThisSession.add(task);  // Add task to failed list if dependencies are not met
-                logger.log(Level.WARNING, "Task {0} skipped due to unmet dependencies.", task.getId());
+                pass.graph.stopAccepting();
             }
-        });
+            running = new ArrayList<>(dispatchWorkers);
+        }
+        synchronized (pauseLock) {
+            pauseLock.notifyAll();  // Paused workers must still see the stop or drain through
+        }
+
+        for (Future<?> worker : running) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                logger.log(Level.SEVERE, "Dispatcher worker failed: {0}", e.getCause().getMessage());
+            }
+        }
+
+        synchronized (dispatchLock) {
+            if (stoppingPass == pass) {
+                stoppingPass = null;
+                dispatchWorkers.clear();
+                if (activeGraph == pass.graph) {
+                    activeGraph = null;
+                }
+                // Nothing is running any more, so only the outcomes settle() has not seen are left
+                for (Task task : pass.graph.getWaitingTasks()) {
+                    logger.log(Level.INFO, "Task {0} is left queued for a later pass.", task.getId());
+                }
+                cancelledTasks.removeIf(task -> !tasks.contains(task));
+                logger.log(Level.INFO, "Server stopped dispatching.");
+            }
+        }
+        settle(pass);
+    }
+
+    // Whether the server's workers are taking tasks as they are queued
+    public boolean isDispatching() {
+        return dispatchPass != null;
+    }
+
+    // Stop starting attempts until resume(): queued and newly added tasks wait, running attempts finish,
+    // and executeTasks() runs nothing. Stopping or draining the dispatcher still completes while paused.
+    public void pause() {
+        paused = true;
+        logger.log(Level.INFO, "Server {0} paused.", name);
+    }
+
+    public void resume() {
+        synchronized (pauseLock) {
+            paused = false;
+            pauseLock.notifyAll();
+        }
+        logger.log(Level.INFO, "Server {0} resumed.", name);
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    // Record a task that failed for good and fail its registry future; the pass removes it from the queue
+    private void deadLetter(Task task, String reason, int attempts) {
+        deadLetters.add(task, reason, attempts);
+        performanceMonitor.recordFailure(task);
+        CompletionRegistry registry = completionRegistry;
+        if (registry != null) {
+            registry.markFailed(task.getId(), new TaskException("Task " + task.getId() + " failed: " + reason, null));
+        }
+    }
+
+    // Failed tasks with their failure reason and attempt count
+    public DeadLetterQueue getDeadLetterQueue() {
+        return deadLetters;
+    }
+
+    // Queue a dead-lettered task again. Returns false if there is no such entry; if the server has no room,
+    // the entry stays in the dead-letter queue and the exception is rethrown.
+    public boolean replayDeadLetter(String taskId) throws ServerException {
+        DeadLetterQueue.DeadLetter entry = deadLetters.remove(taskId);
+        if (entry == null) {
+            return false;
+        }
+        registerReplayed(entry.getTask());  // Before queueing, since a dispatching pass may settle it at once
+        try {
+            addTask(entry.getTask());
+        } catch (ServerException | RuntimeException e) {
+            restoreDeadLetter(entry);
+            throw e;
+        }
+        return true;
+    }
+
+    // Queue every dead-lettered task again; those that do not fit stay behind. Returns how many were queued.
+    public int replayDeadLetters() {
+        List<DeadLetterQueue.DeadLetter> entries = deadLetters.removeAll();
+        List<Task> replayed = new ArrayList<>(entries.size());
+        entries.forEach(entry -> replayed.add(entry.getTask()));
+        replayed.forEach(this::registerReplayed);
+        Set<Task> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        rejected.addAll(addTasks(replayed));
+        for (DeadLetterQueue.DeadLetter entry : entries) {
+            if (rejected.contains(entry.getTask())) {
+                restoreDeadLetter(entry);
+            }
+        }
+        logger.log(Level.INFO, "{0} dead-lettered tasks replayed, {1} did not fit.", new Object[]{entries.size() - rejected.size(), rejected.size()});
+        return entries.size() - rejected.size();
+    }
+
+    // Discard every dead-lettered task; returns how many were discarded
+    public int purgeDeadLetters() {
+        return deadLetters.purge();
+    }
+
+    private void registerReplayed(Task task) {
+        CompletionRegistry registry = completionRegistry;
+        if (registry != null) {
+            registry.registerPending(task.getId());
+        }
+    }
+
+    // Put back an entry whose replay did not fit, failing it again in the registry
+    private void restoreDeadLetter(DeadLetterQueue.DeadLetter entry) {
+        Task task = entry.getTask();
+        deadLetters.add(task, entry.getReason(), entry.getAttempts());
+        CompletionRegistry registry = completionRegistry;
+        if (registry != null) {
+            registry.markFailed(task.getId(), new TaskException("Task " + task.getId() + " failed: " + entry.getReason(), null));
+        }
+    }
 
-        tasks.removeAll(completedTasksThisSession);  // Remove completed tasks from queue
-        this.failedTasks.addAll(failedTasksThisSession);  // Add failed tasks to the server-level failed tasks list
-        this.completedTasks.addAll(completedTasksThisSession);  // Add completed tasks to the server's completed task list
-        logger.log(Level.INFO, "{0} tasks completed, {1} tasks failed.", new Object[]{completedTasksThisSession.size(), failedTasksThisSession.size()});
+    // Re-queue a failed task on the shared timer once its backoff delay has elapsed. Returns false if the server's retry
+    // budget is exhausted, in which case the task fails now instead of piling up more waiting retries.
+    private boolean scheduleRetry(ExecutionPass pass, Task task, int attempt) {
+        int budget = retryPolicy.getRetryBudget();
+        if (pendingRetries.incrementAndGet() > budget && budget > 0) {
+            pendingRetries.decrementAndGet();
+            logger.log(Level.WARNING, "Retry budget of {0} exhausted; task {1} will not be retried.", new Object[]{budget, task.getId()});
+            return false;
+        }
 
-        // After task execution, monitor and alert
-        monitorAndAlert();
+        long delay = retryPolicy.getJitteredDelay(attempt);
+        if (delay <= 0) {
+            pendingRetries.decrementAndGet();
+            pass.graph.requeue(task);
+            return true;
+        }
+        TaskExecutors.timer().newTimeout(() -> {
+            pendingRetries.decrementAndGet();
+            pass.graph.requeue(task);
+        }, delay, TimeUnit.MILLISECONDS);
+        return true;
+    }
 
-        return completedTasksThisSession;  // Return the list of successfully completed tasks in this session
+    // Runs a single attempt of a task and reports whether it completed.
+    // Subclasses override this to execute elsewhere; retries are handled by the caller.
+    protected boolean executeTask(Task task) throws TaskException, ServerException {
+        task.execute();
+        return task.isCompleted();
+    }
+
+    // Starts a single attempt of a task; the future completes with whether it completed, or with a
+    // ServerException. The default runs executeTask() on the calling worker. Subclasses that execute
+    // elsewhere may return before the attempt finishes, so several attempts are in flight at once.
+    protected CompletableFuture<Boolean> submitTask(Task task) {
+        runningThreads.put(task, Thread.currentThread());  // So cancelTask() can interrupt it
+        try {
+            return CompletableFuture.completedFuture(executeTask(task));
+        } catch (TaskException e) {
+            logger.log(Level.FINE, "Task {0} threw: {1}", new Object[]{task.getId(), e.getMessage()});
+            return CompletableFuture.completedFuture(false);
+        } catch (ServerException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            runningThreads.remove(task);
+            if (cancelledTasks.contains(task)) {
+                Thread.interrupted();  // Clear a cancellation interrupt so the worker can go on
+            }
+        }
+    }
+
+    // Sends any attempts a subclass buffered in submitTask(); called before a worker waits for ready tasks
+    protected void flushSubmissions() {
+    }
+
+    // Record a completed task, release its capacity and publish it to the cluster
+    private void recordCompletion(Task task) {
+        completedTasks.add(task);
+        completedTaskIds.add(task.getId());
+        performanceMonitor.recordCompletion(task);
+        long capacity = remainingCapacity.addAndGet(task.getEstimatedDuration().toMillis());
+        logger.log(Level.FINE, "Task {0} released its capacity. Remaining capacity: {1}", new Object[]{task.getId(), capacity});
+
+        CompletionRegistry registry = completionRegistry;
+        if (registry != null) {
+            registry.markCompleted(task.getId());
+        }
+    }
+
+    // Lazily create the worker pool used for concurrent execution
+    private synchronized ExecutorService getWorkers() {
+        if (workers == null) {
+            workers = Executors.newFixedThreadPool(workerCount, TaskExecutors.daemonThreadFactory("server-worker"));
+        }
+        return workers;
+    }
+
+    // Number of workers used by executeTasks()
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    // Stop the worker pool; a new one is created if tasks are executed again
+    public synchronized void shutdownWorkers() {
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
     }
 
     // Retrieve all completed tasks
@@ -162,16 +1022,39 @@ public class Server {
         return new ArrayList<>(completedTasks);  // Return a defensive copy of completed tasks
     }
 
-    // Retrieve a list of tasks that failed to complete
+    // Retrieve the tasks that failed to complete and are held in the dead-letter queue
     public List<Task> getFailedTasks() {
-        return new ArrayList<>(failedTasks);  // Return a defensive copy of failed tasks
+        return deadLetters.getTasks();
+    }
+
+    // Total estimated duration of queued tasks, read from the incrementally maintained counter
+    public long getTotalLoad() {
+        return totalLoad.get();
+    }
+
+    // Number of queued tasks, without copying the queue
+    public int getQueuedTaskCount() {
+        return tasks.size();
+    }
+
+    // Retries waiting for their delay to elapse
+    public int getPendingRetryCount() {
+        return pendingRetries.get();
+    }
+
+    // Number of queued tasks of one priority, read from a counter
+    public int getQueuedTaskCount(TaskPriority priority) {
+        return queuedByPriority.get(priority.ordinal());
+    }
+
+    // Name unique within the process, e.g. server-3
+    public String getName() {
+        return name;
     }
 
-    // Calculate the weighted total load of the server
-    public BigInteger getTotalLoad() {
-        return tasks.stream()
-                .map(task -> task.getEstimatedDuration().getDuration())  // Get the task duration
-                .reduce(BigInteger.ZERO, BigInteger::add);  // Sum up all the weighted loads
+    // Counters and statistics for this server
+    public PerformanceMonitor getPerformanceMonitor() {
+        return performanceMonitor;
     }
 
     // Return tasks (for reference or display purposes)
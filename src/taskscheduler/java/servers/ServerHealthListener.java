@@ -0,0 +1,11 @@
+package taskscheduler.java.servers;
+
+// Notified when failure detection changes its verdict on a server
+public interface ServerHealthListener {
+
+    // The server missed enough heartbeats, or failed enough requests, to be considered down
+    void onServerDown(Server server);
+
+    // A server previously reported down is answering again
+    void onServerUp(Server server);
+}
@@ -0,0 +1,7 @@
+package taskscheduler.java.servers;
+
+// Callback used by a Server to report that its queued load has changed
+@FunctionalInterface
+public interface ServerLoadListener {
+    void onLoadChanged(Server server);
+}
@@ -1,15 +1,16 @@
 package taskscheduler.java.tasks;
 
+import taskscheduler.java.concurrent.TaskExecutors;
 import taskscheduler.java.other.Duration;
 import taskscheduler.java.exceptions.TaskException;
 import taskscheduler.java.other.TaskPriority;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.math.BigInteger;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,7 +27,7 @@ public class DependentTask extends PriorityTask implements Serializable {
 
     // No-argument constructor required for deserialization
     public DependentTask() {
-        super(new Duration(BigInteger.valueOf(3000)), TaskPriority.LOW);
+        super(Duration.ofMillis(3000), TaskPriority.LOW);
         this.dependentTaskIds = new HashSet<>();
     }
 
@@ -61,31 +62,36 @@ public class DependentTask extends PriorityTask implements Serializable {
         return new HashSet<>(dependentTaskIds);  // Return a copy to prevent modification from outside
     }
 
-    // Execute the task if not already completed, with timeout management
+    // Execute the task if not already completed, with timeout management.
+    // Runs on the shared execution pool; the shared timer cancels it if the timeout passes first.
     @Override
     public void execute() throws TaskException {
         if (!this.isCompleted()) {
-            ExecutorService executor = Executors.newSingleThreadExecutor();
-            Future<?> future = executor.submit(() -> {
-                logger.log(Level.INFO, "Task {0} started execution.", this.getId());
-                simulateTaskExecution();
-                logger.log(Level.INFO, "Task {0} finished execution.", this.getId());
-                setCompleted(true);
-            });
-
             try {
-                // Wait for the task to complete or timeout
-                future.get(this.getTimeout(), TimeUnit.MILLISECONDS);
+                TaskExecutors.runWithTimeout(() -> {
+                    logger.log(Level.INFO, "Task {0} started execution.", this.getId());
+                    simulateTaskExecution();
+                    if (Thread.currentThread().isInterrupted()) {
+                        // The timeout or a cancellation interrupted the work, which swallows the interrupt
+                        throw new CompletionException(new TaskException("Task " + this.getId() + " was interrupted before it finished", null));
+                    }
+                    logger.log(Level.INFO, "Task {0} finished execution.", this.getId());
+                    setCompleted(true);
+                }, this.getTimeout());
                 if (this.isCompleted()) {
                     logger.log(Level.INFO, "Task {0} completed successfully.", this.getId());
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.log(Level.SEVERE, "Task {0} interrupted while waiting for completion.", this.getId());
+                throw new TaskException("Task execution failed: interrupted", e);
             } catch (Exception e) {  // Catch all exceptions and wrap them in TaskException
-                future.cancel(true);  // Cancel the task in case of any exception
-                logger.log(Level.SEVERE, "Task {0} failed: {1}", new Object[]{this.getId(), e.getMessage()});
-                throw new TaskException("Task execution failed: " + e.getMessage(), e);
-            } finally {
-                executor.shutdown();  // Cleanly shut down the executor service
-                logger.log(Level.INFO, "Executor service for task {0} has been shut down.", this.getId());
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof CompletionException && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                logger.log(Level.SEVERE, "Task {0} failed: {1}", new Object[]{this.getId(), cause.getMessage()});
+                throw new TaskException("Task execution failed: " + cause.getMessage(), e);
             }
         }
     }
@@ -102,7 +108,7 @@ public class DependentTask extends PriorityTask implements Serializable {
 
         // Simulate the task execution to match the actual duration
         try {
-            Thread.sleep(this.getEstimatedDuration().getDuration().longValue());  // Sleep for the task's duration
+            Thread.sleep(this.getEstimatedDuration().toMillis());  // Sleep for the task's duration
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();  // Restore interrupted status
             logger.log(Level.SEVERE, "Task execution interrupted.");
@@ -13,14 +13,14 @@ public class PriorityTask extends SimpleTask {
     // Copy constructor for defensive copying
     public PriorityTask(PriorityTask otherPriorityTask) {
         // Defensive copying: Copy the ID, duration, and priority of the other task
-        super(new Duration(otherPriorityTask.getEstimatedDuration().getDuration()));  // Deep copy the duration
+        super(new Duration(otherPriorityTask.getEstimatedDuration()));  // Deep copy the duration
         setPriority(otherPriorityTask.getPriority());  // Copy priority (safe, since it's an enum)
         setId(otherPriorityTask.getId());
     }
 
     @Override
     public String toString() {
-        return this.getId() + "; Duration is " + this.getEstimatedDuration().getDuration().toString()
+        return this.getId() + "; Duration is " + this.getEstimatedDuration().toMillis()
                 + " ; Priority is " + this.getPriority() + "; is completed " + this.isCompleted();
     }
 
@@ -0,0 +1,80 @@
+package tests.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.concurrent.HashedWheelTimer;
+import taskscheduler.java.concurrent.TaskExecutors;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    public void setUp() {
+        // Small wheel so delays wrap around it several times
+        timer = new HashedWheelTimer(TaskExecutors.daemonThreadFactory("test-timer"), 5, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void testTimeoutFiresAfterDelay() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timer.newTimeout(fired::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS), "Timeout should fire.");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 95, "Timeout fired too early: " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotFire() throws InterruptedException {
+        AtomicBoolean fired = new AtomicBoolean();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> fired.set(true), 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        Thread.sleep(150);
+
+        assertFalse(fired.get(), "Cancelled timeout should not run.");
+        assertFalse(timeout.cancel(), "Cancelling twice should report false.");
+    }
+
+    @Test
+    public void testSaturatedDelayNeverFires() throws InterruptedException {
+        AtomicBoolean fired = new AtomicBoolean();
+        CountDownLatch control = new CountDownLatch(1);
+
+        // What RetryPolicy.getDelay() returns once the backoff saturates
+        timer.newTimeout(() -> fired.set(true), Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> fired.set(true), Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        timer.newTimeout(control::countDown, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(control.await(2, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertFalse(fired.get(), "A saturated delay must not wrap around into the past.");
+    }
+
+    @Test
+    public void testRunWithTimeoutCancelsSlowAction() {
+        assertThrows(TimeoutException.class, () -> TaskExecutors.runWithTimeout(() -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 50));
+    }
+}
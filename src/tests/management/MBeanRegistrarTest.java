@@ -0,0 +1,79 @@
+package tests.management;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.TaskScheduler;
+import taskscheduler.java.management.MBeanRegistrar;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.SimpleTask;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MBeanRegistrarTest {
+
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    private TaskScheduler scheduler;
+    private Server server;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new TaskScheduler();
+        server = new Server(new RetryPolicy(1, 0, false));
+        scheduler.addServer(server);
+        scheduler.registerMBeans();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.unregisterMBeans();
+    }
+
+    @Test
+    public void testAttributesFollowTheServers() throws Exception {
+        SimpleTask high = new SimpleTask(Duration.ofMillis(100));
+        high.setPriority(TaskPriority.HIGH);
+        scheduler.scheduleTask(high);
+        scheduler.scheduleTask(new SimpleTask(Duration.ofMillis(200)));
+        Server later = new Server(new RetryPolicy(1, 0, false));
+        scheduler.addServer(later);
+
+        ObjectName schedulerName = MBeanRegistrar.schedulerObjectName(scheduler.getName());
+        ObjectName serverName = MBeanRegistrar.serverObjectName(scheduler.getName(), server);
+        assertTrue(mbeanServer.isRegistered(MBeanRegistrar.serverObjectName(scheduler.getName(), later)),
+                "Servers added after registration are exported too.");
+        assertEquals(2, mbeanServer.getAttribute(schedulerName, "Servers"));
+        assertEquals(2, mbeanServer.getAttribute(schedulerName, "QueuedTasks"));
+        assertEquals(1, mbeanServer.getAttribute(schedulerName, "QueuedHighPriorityTasks"));
+        assertEquals(300L, mbeanServer.getAttribute(schedulerName, "TotalLoad"));
+
+        scheduler.executeAll();
+        assertEquals(2L, mbeanServer.getAttribute(schedulerName, "CompletedTasks"));
+        assertEquals(0, mbeanServer.getAttribute(serverName, "QueuedLowPriorityTasks"));
+        assertTrue((Long) mbeanServer.getAttribute(serverName, "ExecutionP99Micros") >= 0);
+    }
+
+    @Test
+    public void testOperationsAndUnregistration() throws Exception {
+        ObjectName schedulerName = MBeanRegistrar.schedulerObjectName(scheduler.getName());
+        ObjectName serverName = MBeanRegistrar.serverObjectName(scheduler.getName(), server);
+
+        mbeanServer.invoke(schedulerName, "pause", null, null);
+        assertTrue(server.isPaused());
+        assertEquals(true, mbeanServer.getAttribute(serverName, "Paused"));
+        mbeanServer.invoke(serverName, "resume", null, null);
+        assertFalse(server.isPaused());
+        mbeanServer.invoke(schedulerName, "drain", null, null);
+
+        scheduler.unregisterMBeans();
+        assertFalse(mbeanServer.isRegistered(schedulerName));
+        assertFalse(mbeanServer.isRegistered(serverName));
+    }
+}
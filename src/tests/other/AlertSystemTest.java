@@ -1,4 +1,100 @@
 package tests.other;
 
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.other.Alert;
+import taskscheduler.java.other.AlertSink;
+import taskscheduler.java.other.AlertSystem;
+import taskscheduler.java.other.AlertSystem.AlertLevel;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 public class AlertSystemTest {
+
+    @Test
+    public void testRepeatedAlertsAreSuppressedUntilTheLevelChanges() throws InterruptedException {
+        List<Alert> received = new CopyOnWriteArrayList<>();
+        AlertSystem alerts = new AlertSystem(16, 60_000, List.of(received::add));
+
+        alerts.checkForHighFailureRate(0.5, 0.1);
+        alerts.checkForHighFailureRate(0.6, 0.1);
+        alerts.checkForHighFailureRate(0.7, 0.1);
+        alerts.checkForHighFailureRate(0.0, 0.1);  // Recovery goes out at once
+        assertTrue(alerts.flush(1, TimeUnit.SECONDS));
+
+        assertEquals(2, received.size());
+        assertEquals(AlertLevel.CRITICAL, received.get(0).getLevel());
+        assertEquals(AlertLevel.INFO, received.get(1).getLevel());
+        assertEquals("failure-rate", received.get(1).getKey());
+        assertEquals(2, alerts.getSuppressedCount());
+    }
+
+    @Test
+    public void testCooldownLetsTheSameAlertRepeat() throws InterruptedException {
+        List<Alert> received = new CopyOnWriteArrayList<>();
+        AlertSystem alerts = new AlertSystem(16, 0, List.of(received::add));
+
+        alerts.triggerAlert("disk", AlertLevel.WARNING, "Disk almost full");
+        alerts.triggerAlert("disk", AlertLevel.WARNING, "Disk almost full");
+        assertTrue(alerts.flush(1, TimeUnit.SECONDS));
+
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    public void testExpiredKeysAreForgotten() throws InterruptedException {
+        AlertSystem alerts = new AlertSystem(256, 0, List.of());
+
+        for (int i = 0; i < 100; i++) {
+            alerts.triggerAlert(AlertLevel.WARNING, "Queue depth " + i);  // The varying message is its own key
+        }
+        Thread.sleep(1100);  // Sweeps run at most once a second
+        alerts.triggerAlert(AlertLevel.WARNING, "Queue depth 100");
+
+        assertEquals(1, alerts.getTrackedKeyCount(), "Keys past their cooldown must not pile up.");
+    }
+
+    @Test
+    public void testFullQueueDropsInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        AlertSink slow = alert -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AlertSystem alerts = new AlertSystem(2, 60_000, List.of(slow));
+
+        assertTrue(alerts.triggerAlert("a", AlertLevel.INFO, "first"));
+        assertTrue(blocked.await(1, TimeUnit.SECONDS), "The dispatcher should be busy with the first alert.");
+        assertTrue(alerts.triggerAlert("b", AlertLevel.INFO, "second"));
+        assertTrue(alerts.triggerAlert("c", AlertLevel.INFO, "third"));
+        assertFalse(alerts.triggerAlert("d", AlertLevel.INFO, "fourth"));
+        assertEquals(1, alerts.getDroppedCount());
+
+        release.countDown();
+        assertTrue(alerts.flush(1, TimeUnit.SECONDS));
+        assertEquals(3, alerts.getDeliveredCount());
+    }
+
+    @Test
+    public void testFailingSinkDoesNotStopOthers() throws InterruptedException {
+        List<Alert> received = new CopyOnWriteArrayList<>();
+        AlertSink broken = alert -> {
+            throw new IllegalStateException("Sink down");
+        };
+        AlertSystem alerts = new AlertSystem(16, 60_000, List.of(broken, received::add));
+
+        alerts.triggerAlert(AlertLevel.CRITICAL, "Server down");
+        assertTrue(alerts.flush(1, TimeUnit.SECONDS));
+
+        assertEquals(1, received.size());
+    }
 }
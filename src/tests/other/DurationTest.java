@@ -62,4 +62,17 @@ public class DurationTest {
         Duration duration = Duration.ofMillis(millis);
         assertEquals(expected, duration.getDuration(), "ofMillis does not correctly convert milliseconds to Duration.");
     }
+
+    @Test
+    public void testToMillis() {
+        Duration duration = Duration.ofMillis(1500L);
+        assertEquals(1500L, duration.toMillis(), "toMillis does not return the stored milliseconds.");
+        assertEquals(duration, new Duration(BigInteger.valueOf(1500L)), "BigInteger and long durations should be equal.");
+    }
+
+    @Test
+    public void testRejectsDurationLargerThanLong() {
+        BigInteger tooLarge = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+        assertThrows(ArithmeticException.class, () -> new Duration(tooLarge), "Durations that overflow a long should be rejected.");
+    }
 }
@@ -0,0 +1,38 @@
+package tests.other;
+
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.other.LatencyHistogram;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000, histogram.getValueAtPercentile(50), 50_000 * 0.04);
+        assertEquals(99_000, histogram.getValueAtPercentile(99), 99_000 * 0.04);
+        assertEquals(99_900, histogram.getValueAtPercentile(99.9), 99_900 * 0.04);
+        assertEquals(50_000.5, histogram.getMean(), 1e-6);
+    }
+
+    @Test
+    public void testSmallValuesAreExactAndTailNeverExceedsMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99), "An empty histogram reports zero.");
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(3, histogram.getValueAtPercentile(10));
+        assertEquals(7, histogram.getValueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+    }
+}
@@ -0,0 +1,39 @@
+package tests.other;
+
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.other.LatencyWindow;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LatencyWindowTest {
+
+    @Test
+    public void testPercentilesOfRecordedSamples() {
+        LatencyWindow window = new LatencyWindow(128);
+        for (int i = 1; i <= 100; i++) {
+            window.record(i);
+        }
+
+        assertArrayEquals(new long[]{50, 99, 100}, window.percentiles(50, 99, 100));
+    }
+
+    @Test
+    public void testOldSamplesFallOutOfTheWindow() {
+        LatencyWindow window = new LatencyWindow(4);
+        for (int i = 0; i < 4; i++) {
+            window.record(1000);
+        }
+        for (int i = 0; i < 4; i++) {
+            window.record(10);
+        }
+
+        assertEquals(4, window.size());
+        assertArrayEquals(new long[]{10}, window.percentiles(99));
+    }
+
+    @Test
+    public void testEmptyWindowReportsZero() {
+        assertArrayEquals(new long[]{0, 0}, new LatencyWindow(8).percentiles(50, 99));
+    }
+}
@@ -1,4 +1,133 @@
 package tests.other;
 
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.exceptions.ServerException;
+import taskscheduler.java.exceptions.TaskException;
+import taskscheduler.java.other.Alert;
+import taskscheduler.java.other.AlertSystem;
+import taskscheduler.java.other.AlertSystem.AlertLevel;
+import taskscheduler.java.other.AlertThresholds;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.PerformanceMonitor;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.SimpleTask;
+import taskscheduler.java.tasks.Task;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 public class PerformanceMonitorTest {
+
+    @Test
+    public void testCountersFollowServerOutcomes() throws ServerException {
+        Server server = new Server(new RetryPolicy(1, 0, false));
+        server.addTask(new SimpleTask(Duration.ofMillis(100)));
+        server.addTask(new SimpleTask(Duration.ofMillis(300)));
+        server.addTask(new SimpleTask(Duration.ofMillis(200)) {
+            @Override
+            public void execute() throws TaskException {
+                throw new TaskException("Task failed", null);
+            }
+        });
+
+        server.executeTasks();
+
+        PerformanceMonitor monitor = server.getPerformanceMonitor();
+        assertEquals(2, monitor.getCompletedCount());
+        assertEquals(1, monitor.getFailedCount());
+        assertEquals(400, monitor.getTotalLoad());
+        assertEquals(3, monitor.getExecutionHistogram().getCount(), "Each attempt is measured.");
+        assertTrue(monitor.getAverageExecutionTime() >= 0);
+        assertEquals(2.0 / 3, monitor.getSuccessRate(), 1e-9);
+        assertEquals(1.0 / 3, monitor.getFailureRate(), 1e-9);
+    }
+
+    @Test
+    public void testCountersOutliveTheDeadLetterQueue() throws ServerException {
+        Server server = new Server(new RetryPolicy(1, 0, false));
+        server.addTask(new SimpleTask(Duration.ofMillis(100)) {
+            @Override
+            public void execute() throws TaskException {
+                throw new TaskException("Task failed", null);
+            }
+        });
+        server.executeTasks();
+        server.purgeDeadLetters();
+
+        assertEquals(1, server.getPerformanceMonitor().getFailedCount(), "Purging failed tasks does not rewrite history.");
+        assertEquals(1.0, server.getPerformanceMonitor().getFailureRate());
+    }
+
+    @Test
+    public void testHistogramsAreKeptPerPriority() throws ServerException {
+        Server server = new Server(new RetryPolicy(3, 0, false));
+        SimpleTask high = new SimpleTask(Duration.ofMillis(100));
+        high.setPriority(TaskPriority.HIGH);
+        server.addTask(high);
+        server.addTask(new SimpleTask(Duration.ofMillis(100)) {
+            private int attempts;
+
+            @Override
+            public void execute() throws TaskException {
+                if (++attempts < 3) {
+                    throw new TaskException("Task failed", null);
+                }
+                super.execute();
+            }
+        });
+
+        server.executeTasks();
+
+        PerformanceMonitor monitor = server.getPerformanceMonitor();
+        assertEquals(2, monitor.getQueueWaitHistogram().getCount(), "Queue wait is measured once per task.");
+        assertEquals(1, monitor.getQueueWaitHistogram(TaskPriority.HIGH).getCount());
+        assertEquals(3, monitor.getExecutionHistogram(TaskPriority.LOW).getCount());
+        assertEquals(2, monitor.getRetryHistogram(TaskPriority.LOW).getMax());
+        assertEquals(0, monitor.getRetryHistogram(TaskPriority.HIGH).getMax());
+        assertEquals(0, monitor.getQueueWaitHistogram(TaskPriority.MEDIUM).getCount());
+    }
+
+    @Test
+    public void testRecentFailuresTripAlertsDespiteHealthyHistory() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        List<Alert> received = new CopyOnWriteArrayList<>();
+        AlertSystem alerts = new AlertSystem(64, 60_000, List.of(received::add));
+        PerformanceMonitor monitor = new PerformanceMonitor(new Server(new RetryPolicy(1, 0, false)), alerts, clock::get);
+        Task task = new SimpleTask(Duration.ofMillis(100));
+
+        for (int i = 0; i < 10_000; i++) {
+            monitor.recordCompletion(task);
+        }
+        clock.addAndGet(3_600_000);  // An hour of quiet, then a bad few seconds
+        for (int i = 0; i < 30; i++) {
+            monitor.recordFailure(task);
+        }
+        monitor.monitorAndAlert();
+        assertTrue(alerts.flush(1, TimeUnit.SECONDS));
+
+        assertTrue(monitor.getFailureRate() < 0.01, "The lifetime rate hides the burst.");
+        assertEquals(1.0, monitor.getWindowedFailureRate());
+        assertTrue(received.stream().anyMatch(alert -> alert.getKey().equals("failure-rate") && alert.getLevel() == AlertLevel.CRITICAL));
+        assertTrue(received.stream().anyMatch(alert -> alert.getKey().equals("failure-surge") && alert.getLevel() == AlertLevel.WARNING));
+    }
+
+    @Test
+    public void testThresholdsArePerServer() {
+        Server first = new Server(new RetryPolicy(1, 0, false));
+        Server second = new Server(new RetryPolicy(1, 0, false));
+        AlertThresholds strict = new AlertThresholds();
+        strict.setFailureRate(0.01);
+        strict.setWindowSeconds(10);
+        first.getPerformanceMonitor().setThresholds(strict);
+
+        assertEquals(0.01, first.getPerformanceMonitor().getThresholds().getFailureRate());
+        assertEquals(0.10, second.getPerformanceMonitor().getThresholds().getFailureRate());
+        assertThrows(IllegalArgumentException.class, () -> strict.setWindowSeconds(AlertThresholds.MAX_WINDOW_SECONDS + 1));
+    }
 }
@@ -0,0 +1,44 @@
+package tests.other;
+
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.other.SlidingWindowCounter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingWindowCounterTest {
+
+    @Test
+    public void testOldSecondsFallOutOfTheWindow() {
+        AtomicLong clock = new AtomicLong(1_000_000);
+        SlidingWindowCounter counter = new SlidingWindowCounter(10, clock::get);
+
+        counter.add(5);
+        clock.addAndGet(3000);
+        counter.increment();
+        counter.increment();
+
+        assertEquals(7, counter.sum(10));
+        assertEquals(2, counter.sum(1), "Only the current second.");
+        assertEquals(5, counter.sum(2, 3), "The two seconds ending three seconds ago.");
+
+        clock.addAndGet(8000);
+        assertEquals(2, counter.sum(10), "The first bucket has left the window.");
+        clock.addAndGet(60_000);
+        assertEquals(0, counter.sum(10), "An idle period reads as zero, not as stale buckets.");
+    }
+
+    @Test
+    public void testReusedBucketStartsFromZero() {
+        AtomicLong clock = new AtomicLong(0);
+        SlidingWindowCounter counter = new SlidingWindowCounter(4, clock::get);
+
+        counter.add(10);
+        clock.addAndGet(4000);  // Same bucket, four seconds later
+        counter.add(1);
+
+        assertEquals(1, counter.sum(4));
+        assertThrows(IllegalArgumentException.class, () -> counter.sum(4, 1));
+    }
+}
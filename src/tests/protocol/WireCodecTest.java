@@ -0,0 +1,119 @@
+package tests.protocol;
+
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.protocol.RemoteRequest;
+import taskscheduler.java.protocol.RemoteResponse;
+import taskscheduler.java.protocol.TaskCodecRegistry;
+import taskscheduler.java.protocol.WireCodec;
+import taskscheduler.java.tasks.DependentTask;
+import taskscheduler.java.tasks.PriorityTask;
+import taskscheduler.java.tasks.SimpleTask;
+import taskscheduler.java.tasks.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WireCodecTest {
+
+    private final WireCodec codec = new WireCodec();
+
+    // Encode then decode through a stream, as the two ends of a connection would
+    private RemoteRequest roundTrip(RemoteRequest request) throws IOException {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        WireCodec.writeFrame(wire, codec.encode(request));
+        return codec.decodeRequest(codec.readFrame(new ByteArrayInputStream(wire.toByteArray())));
+    }
+
+    @Test
+    public void testBuiltInTasksRoundTrip() throws IOException {
+        DependentTask dependent = new DependentTask(Duration.ofMillis(250), TaskPriority.HIGH, Set.of("a", "b"));
+        dependent.setTimeout(900);
+        PriorityTask priority = new PriorityTask(Duration.ofMillis(40), TaskPriority.MEDIUM);
+        SimpleTask simple = new SimpleTask(Duration.ofMillis(5));
+
+        RemoteRequest decoded = roundTrip(new RemoteRequest(7, RemoteRequest.Type.BATCH, List.of(dependent, priority, simple)));
+
+        assertEquals(7, decoded.getRequestId());
+        assertEquals(RemoteRequest.Type.BATCH, decoded.getType());
+        Task first = decoded.getTasks().get(0);
+        assertInstanceOf(DependentTask.class, first);
+        assertEquals(dependent.getId(), first.getId());
+        assertEquals(TaskPriority.HIGH, first.getPriority());
+        assertEquals(250, first.getEstimatedDuration().toMillis());
+        assertEquals(900, first.getTimeout());
+        assertEquals(Set.of("a", "b"), first.getDependencies());
+        assertInstanceOf(PriorityTask.class, decoded.getTasks().get(1));
+        assertEquals(priority.getId(), decoded.getTasks().get(1).getId());
+        assertEquals(simple.getId(), decoded.getTasks().get(2).getId());
+    }
+
+    @Test
+    public void testLargeBodiesAreCompressed() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(new PriorityTask(Duration.ofMillis(10), TaskPriority.LOW));
+        }
+        ByteBuffer frame = codec.encode(new RemoteRequest(1, RemoteRequest.Type.BATCH, tasks));
+
+        assertEquals(WireCodec.FLAG_COMPRESSED, frame.get(frame.position() + 4 + 4));
+        assertEquals(200, roundTrip(new RemoteRequest(1, RemoteRequest.Type.BATCH, tasks)).getTasks().size());
+    }
+
+    @Test
+    public void testTinyBodiesAreSentUncompressed() throws IOException {
+        WireCodec eager = new WireCodec(TaskCodecRegistry.getDefault(), -1);
+        for (RemoteRequest.Type type : List.of(RemoteRequest.Type.PING, RemoteRequest.Type.BATCH)) {
+            ByteBuffer frame = eager.encode(new RemoteRequest(5, type, List.of()));
+            assertEquals(0, frame.get(frame.position() + 4 + 4));
+
+            ByteArrayOutputStream wire = new ByteArrayOutputStream();
+            WireCodec.writeFrame(wire, frame);
+            RemoteRequest decoded = eager.decodeRequest(eager.readFrame(new ByteArrayInputStream(wire.toByteArray())));
+            assertEquals(type, decoded.getType());
+            assertTrue(decoded.getTasks().isEmpty());
+        }
+    }
+
+    @Test
+    public void testResponseRoundTrip() throws IOException {
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        WireCodec.writeFrame(wire, codec.encode(new RemoteResponse(3,
+                List.of(RemoteResponse.Status.ACK, RemoteResponse.Status.FAILED))));
+
+        RemoteResponse decoded = codec.decodeResponse(codec.readFrame(new ByteArrayInputStream(wire.toByteArray())));
+
+        assertEquals(3, decoded.getRequestId());
+        assertEquals(List.of(RemoteResponse.Status.ACK, RemoteResponse.Status.FAILED), decoded.getStatuses());
+    }
+
+    @Test
+    public void testUnknownVersionIsRejected() {
+        ByteBuffer frame = codec.encode(new RemoteRequest(1, RemoteRequest.Type.PING, List.of()));
+        frame.position(4);  // Skip the length prefix
+        frame.put(frame.position() + 2, (byte) (WireCodec.VERSION + 1));
+
+        assertThrows(ProtocolException.class, () -> codec.decodeRequest(frame));
+    }
+
+    @Test
+    public void testTaskWithoutCodecDecodesAsNull() throws IOException {
+        ByteBuffer frame = codec.encode(new RemoteRequest(1, RemoteRequest.Type.TASK, List.of(new SimpleTask(Duration.ofMillis(1)))));
+        frame.position(4);
+        WireCodec executorSide = new WireCodec(new TaskCodecRegistry(), WireCodec.DEFAULT_COMPRESSION_THRESHOLD);
+
+        RemoteRequest decoded = executorSide.decodeRequest(frame);
+
+        assertEquals(1, decoded.getTasks().size());
+        assertNull(decoded.getTasks().get(0));
+    }
+}
@@ -0,0 +1,63 @@
+package tests.scheduling;
+
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.exceptions.TaskException;
+import taskscheduler.java.scheduling.CompletionRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletionRegistryTest {
+
+    @Test
+    public void testOldestOutcomeIsForgottenWhenFull() {
+        CompletionRegistry registry = new CompletionRegistry(2);
+        registry.markCompleted("a");
+        registry.markFailed("b", new TaskException("Task failed", null));
+        registry.markCancelled("c");
+
+        assertFalse(registry.isCompleted("a"));
+        assertFalse(registry.completion("a").isDone(), "A forgotten outcome no longer settles new futures.");
+        assertTrue(registry.completion("b").isCompletedExceptionally());
+        assertTrue(registry.completion("c").isCancelled());
+        assertEquals(1, registry.getForgottenOutcomeCount());
+    }
+
+    @Test
+    public void testSubscribersLearnEveryOutcome() {
+        CompletionRegistry registry = new CompletionRegistry();
+        List<Throwable> outcomes = new ArrayList<>();
+        for (String taskId : List.of("a", "b", "c")) {
+            registry.registerPending(taskId);
+            registry.subscribe(taskId, (id, failure) -> outcomes.add(failure));
+        }
+        TaskException cause = new TaskException("Task failed", null);
+
+        registry.markCompleted("a");
+        registry.markFailed("b", cause);
+        registry.markCancelled("c");
+
+        assertEquals(3, outcomes.size());
+        assertNull(outcomes.get(0));
+        assertSame(cause, outcomes.get(1));
+        assertInstanceOf(CancellationException.class, outcomes.get(2));
+    }
+
+    @Test
+    public void testReplayedTaskLosesItsFailure() {
+        CompletionRegistry registry = new CompletionRegistry();
+        registry.markFailed("a", new TaskException("Task failed", null));
+
+        registry.registerPending("a");
+
+        CompletableFuture<String> future = registry.completion("a");
+        assertFalse(future.isDone());
+        assertTrue(registry.isPending("a"));
+        registry.markCompleted("a");
+        assertEquals("a", future.join());
+    }
+}
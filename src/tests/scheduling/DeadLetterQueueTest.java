@@ -0,0 +1,111 @@
+package tests.scheduling;
+
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.exceptions.ServerException;
+import taskscheduler.java.exceptions.TaskException;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.scheduling.DeadLetterQueue;
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.SimpleTask;
+import taskscheduler.java.tasks.Task;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadLetterQueueTest {
+
+    @Test
+    public void testOldestEntryIsDroppedWhenFull() {
+        DeadLetterQueue queue = new DeadLetterQueue(2);
+        Task first = new SimpleTask(Duration.ofMillis(100));
+        Task second = new SimpleTask(Duration.ofMillis(100));
+        Task third = new SimpleTask(Duration.ofMillis(100));
+        queue.add(first, "boom", 3);
+        queue.add(second, "boom", 3);
+        queue.add(third, "boom", 3);
+
+        assertEquals(List.of(second, third), queue.getTasks());
+        assertEquals(1, queue.getEvictedCount());
+        assertNull(queue.get(first.getId()));
+        assertEquals(3, queue.get(third.getId()).getAttempts());
+    }
+
+    @Test
+    public void testFailedTasksLeaveTheQueueOnce() throws ServerException {
+        Server server = new Server(new RetryPolicy(2, 0, false));
+        FlakyTask poison = new FlakyTask();
+        Task dependent = new DependentOn(poison.getId());
+        server.addTask(poison);
+        server.addTask(dependent);
+        long capacity = server.getRemainingCapacity();
+
+        server.executeTasks();
+        server.executeTasks();
+
+        assertEquals(2, poison.runs, "A dead-lettered task must not run again on later passes.");
+        assertTrue(server.getTasks().isEmpty());
+        assertEquals(capacity + 200, server.getRemainingCapacity(), "Failed tasks release their capacity.");
+        assertEquals(2, server.getFailedTasks().size(), "Each failure is recorded once.");
+
+        DeadLetterQueue.DeadLetter entry = server.getDeadLetterQueue().get(poison.getId());
+        assertEquals(2, entry.getAttempts());
+        assertEquals("Retries exhausted", entry.getReason());
+        assertEquals(0, server.getDeadLetterQueue().get(dependent.getId()).getAttempts());
+    }
+
+    @Test
+    public void testReplayAndPurge() throws ServerException {
+        Server server = new Server(new RetryPolicy(1, 0, false));
+        FlakyTask task = new FlakyTask();
+        Task other = new DependentOn("missing");
+        server.addTask(task);
+        server.addTask(other);
+        server.executeTasks();
+        assertEquals(2, server.getDeadLetterQueue().size());
+
+        task.healthy = true;
+        assertTrue(server.replayDeadLetter(task.getId()));
+        assertFalse(server.replayDeadLetter(task.getId()), "An entry can only be replayed once.");
+        assertEquals(List.of(task), server.executeTasks());
+
+        assertEquals(1, server.purgeDeadLetters());
+        assertTrue(server.getFailedTasks().isEmpty());
+    }
+
+    // Task that fails until it is made healthy, counting its runs
+    private static class FlakyTask extends SimpleTask {
+        private volatile boolean healthy;
+        private int runs;
+
+        FlakyTask() {
+            super(Duration.ofMillis(100));
+        }
+
+        @Override
+        public void execute() throws TaskException {
+            runs++;
+            if (!healthy) {
+                throw new TaskException("Task failed", null);
+            }
+            super.execute();
+        }
+    }
+
+    // Task that depends on one other task
+    private static class DependentOn extends SimpleTask {
+        private final String dependencyId;
+
+        DependentOn(String dependencyId) {
+            super(Duration.ofMillis(100));
+            this.dependencyId = dependencyId;
+        }
+
+        @Override
+        public Set<String> getDependencies() {
+            return Set.of(dependencyId);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package tests.scheduling;
+
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.scheduling.DependencyGraph;
+import taskscheduler.java.tasks.DependentTask;
+import taskscheduler.java.tasks.Task;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DependencyGraphTest {
+
+    private static DependentTask task(TaskPriority priority) {
+        return new DependentTask(Duration.ofMillis(100), priority);
+    }
+
+    @Test
+    public void testChainBecomesReadyInOrder() throws InterruptedException {
+        DependentTask taskA = task(TaskPriority.LOW);
+        DependentTask taskB = task(TaskPriority.HIGH);
+        DependentTask taskC = task(TaskPriority.HIGH);
+        taskB.addDependentTask(taskA.getId());
+        taskC.addDependentTask(taskB.getId());
+
+        DependencyGraph graph = new DependencyGraph(List.of(taskC, taskB, taskA), id -> false);
+
+        // Priority never overrides dependencies: A must run first even though it is LOW
+        assertSame(taskA, graph.takeReady());
+        graph.markCompleted(taskA);
+        assertSame(taskB, graph.takeReady());
+        graph.markCompleted(taskB);
+        assertSame(taskC, graph.takeReady());
+        graph.markCompleted(taskC);
+        assertNull(graph.takeReady(), "Graph should be exhausted once the chain is done.");
+        assertTrue(graph.isDone());
+    }
+
+    @Test
+    public void testReadyTasksComeOutByPriority() throws InterruptedException {
+        DependentTask low = task(TaskPriority.LOW);
+        DependentTask high = task(TaskPriority.HIGH);
+        DependentTask medium = task(TaskPriority.MEDIUM);
+
+        DependencyGraph graph = new DependencyGraph(List.of(low, high, medium), id -> false);
+
+        assertSame(high, graph.takeReady());
+        assertSame(medium, graph.takeReady());
+        assertSame(low, graph.takeReady());
+    }
+
+    @Test
+    public void testCompletedDependencyOutsideBatchIsSatisfied() throws InterruptedException {
+        DependentTask taskB = new DependentTask(Duration.ofMillis(100), TaskPriority.LOW, Set.of("done"));
+        DependentTask taskC = new DependentTask(Duration.ofMillis(100), TaskPriority.LOW, Set.of("missing"));
+
+        DependencyGraph graph = new DependencyGraph(List.of(taskB, taskC), "done"::equals);
+
+        assertEquals(List.of(taskC), graph.getUnresolvedTasks());
+        assertSame(taskB, graph.takeReady());
+    }
+
+    @Test
+    public void testCyclesAreDetectedUpFront() throws InterruptedException {
+        DependentTask taskA = task(TaskPriority.LOW);
+        DependentTask taskB = task(TaskPriority.LOW);
+        DependentTask downstream = task(TaskPriority.LOW);
+        DependentTask independent = task(TaskPriority.LOW);
+        taskA.addDependentTask(taskB.getId());
+        taskB.addDependentTask(taskA.getId());
+        downstream.addDependentTask(taskA.getId());
+
+        DependencyGraph graph = new DependencyGraph(List.of(taskA, taskB, downstream, independent), id -> false);
+
+        List<Task> cyclic = graph.getCyclicTasks();
+        assertEquals(3, cyclic.size());
+        assertTrue(cyclic.containsAll(List.of(taskA, taskB, downstream)));
+        assertSame(independent, graph.takeReady());
+    }
+
+    @Test
+    public void testFailureSkipsDependents() throws InterruptedException {
+        DependentTask taskA = task(TaskPriority.LOW);
+        DependentTask taskB = task(TaskPriority.LOW);
+        DependentTask taskC = task(TaskPriority.LOW);
+        taskB.addDependentTask(taskA.getId());
+        taskC.addDependentTask(taskB.getId());
+
+        DependencyGraph graph = new DependencyGraph(List.of(taskA, taskB, taskC), id -> false);
+
+        graph.markFailed(graph.takeReady());
+        assertNull(graph.takeReady(), "Nothing downstream of a failed task should run.");
+        assertEquals(2, graph.getSkippedTasks().size());
+    }
+
+    @Test
+    public void testOpenGraphTakesTasksAddedLater() throws InterruptedException {
+        DependentTask taskA = task(TaskPriority.LOW);
+        DependentTask taskB = task(TaskPriority.HIGH);
+        DependentTask orphan = task(TaskPriority.HIGH);
+        taskB.addDependentTask(taskA.getId());
+        orphan.addDependentTask("missing");
+
+        DependencyGraph graph = new DependencyGraph(List.of(), id -> false, id -> false, true);
+        assertNull(graph.pollReady());
+
+        assertTrue(graph.add(taskA, id -> false, id -> false));
+        assertTrue(graph.add(taskB, id -> false, id -> false));
+        assertFalse(graph.add(orphan, id -> false, id -> false), "A task with an unknown dependency cannot be added.");
+
+        assertSame(taskA, graph.takeReady());
+        graph.markCompleted(taskA);
+        assertSame(taskB, graph.takeReady());
+        graph.markCompleted(taskB);
+
+        // An open graph waits for more work until it stops accepting it
+        graph.stopAccepting();
+        assertNull(graph.takeReady());
+        assertTrue(graph.isDone());
+    }
+}
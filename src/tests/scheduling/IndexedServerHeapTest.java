@@ -0,0 +1,74 @@
+package tests.scheduling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.exceptions.ServerException;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.scheduling.IndexedServerHeap;
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.SimpleTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedServerHeapTest {
+
+    private IndexedServerHeap heap;
+    private Server serverA;
+    private Server serverB;
+    private Server serverC;
+
+    @BeforeEach
+    public void setUp() {
+        heap = new IndexedServerHeap();
+        RetryPolicy retryPolicy = new RetryPolicy(1, 0, false);
+        serverA = new Server(retryPolicy);
+        serverB = new Server(retryPolicy);
+        serverC = new Server(retryPolicy);
+        for (Server server : new Server[]{serverA, serverB, serverC}) {
+            server.setLoadListener(heap::update);
+        }
+    }
+
+    @Test
+    public void testPeekReturnsLeastLoadedServer() throws ServerException {
+        serverA.addTask(new SimpleTask(Duration.ofMillis(3000)));
+        serverB.addTask(new SimpleTask(Duration.ofMillis(1000)));
+        serverC.addTask(new SimpleTask(Duration.ofMillis(2000)));
+
+        heap.add(serverA);
+        heap.add(serverB);
+        heap.add(serverC);
+
+        assertSame(serverB, heap.peek(), "Server with the lowest load should be at the top.");
+    }
+
+    @Test
+    public void testLoadChangesReorderHeap() throws ServerException {
+        heap.add(serverA);
+        heap.add(serverB);
+
+        // Adding work to the top server pushes it down
+        Server top = heap.peek();
+        top.addTask(new SimpleTask(Duration.ofMillis(1000)));
+        assertNotSame(top, heap.peek(), "Loaded server should no longer be the least loaded.");
+
+        // Executing its tasks frees the load and brings it back
+        Server other = heap.peek();
+        other.addTask(new SimpleTask(Duration.ofMillis(5000)));
+        top.executeTasks();
+        assertSame(top, heap.peek(), "Server should move back up once its queue is drained.");
+    }
+
+    @Test
+    public void testRemove() {
+        heap.add(serverA);
+        heap.add(serverB);
+        heap.add(serverC);
+
+        assertTrue(heap.remove(serverB));
+        assertFalse(heap.remove(serverB), "Removing twice should report the server as absent.");
+        assertEquals(2, heap.size());
+        assertFalse(heap.contains(serverB));
+    }
+}
@@ -0,0 +1,115 @@
+package tests.scheduling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.TaskScheduler;
+import taskscheduler.java.exceptions.ServerException;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.scheduling.ServerSelectionStrategy;
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.SimpleTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerSelectionStrategyTest {
+
+    private Server serverA;
+    private Server serverB;
+
+    @BeforeEach
+    public void setUp() {
+        RetryPolicy retryPolicy = new RetryPolicy(1, 0, false);
+        serverA = new Server(retryPolicy);
+        serverB = new Server(retryPolicy);
+    }
+
+    @Test
+    public void testLeastLoadedPicksLightestServer() throws ServerException {
+        ServerSelectionStrategy strategy = ServerSelectionStrategy.leastLoaded();
+        serverA.setLoadListener(strategy::onLoadChanged);
+        serverB.setLoadListener(strategy::onLoadChanged);
+        strategy.addServer(serverA);
+        strategy.addServer(serverB);
+
+        strategy.selectServer(null).addTask(new SimpleTask(Duration.ofMillis(1000)));
+        Server next = strategy.selectServer(null);
+        assertEquals(0L, next.getTotalLoad(), "The idle server should be chosen next.");
+    }
+
+    @Test
+    public void testPowerOfTwoChoicesPicksLessLoadedOfPair() throws ServerException {
+        ServerSelectionStrategy strategy = ServerSelectionStrategy.powerOfTwoChoices();
+        strategy.addServer(serverA);
+        strategy.addServer(serverB);
+        serverA.addTask(new SimpleTask(Duration.ofMillis(1000)));
+
+        // With two servers both are always sampled, so the idle one always wins
+        for (int i = 0; i < 20; i++) {
+            assertSame(serverB, strategy.selectServer(null));
+        }
+    }
+
+    @Test
+    public void testRoundRobinCyclesThroughServers() {
+        ServerSelectionStrategy strategy = ServerSelectionStrategy.roundRobin();
+        strategy.addServer(serverA);
+        strategy.addServer(serverB);
+
+        assertSame(serverA, strategy.selectServer(null));
+        assertSame(serverB, strategy.selectServer(null));
+        assertSame(serverA, strategy.selectServer(null));
+    }
+
+    @Test
+    public void testWeightedByCapacitySkipsFullServers() {
+        ServerSelectionStrategy strategy = ServerSelectionStrategy.weightedByCapacity();
+        strategy.addServer(serverA);
+        strategy.addServer(serverB);
+        serverA.setRemainingCapacity(0L);
+
+        for (int i = 0; i < 20; i++) {
+            assertSame(serverB, strategy.selectServer(null));
+        }
+    }
+
+    @Test
+    public void testSchedulerUsesSelectedStrategy() throws ServerException {
+        TaskScheduler scheduler = new TaskScheduler(ServerSelectionStrategy.roundRobin());
+        scheduler.addServer(serverA);
+        scheduler.addServer(serverB);
+
+        scheduler.scheduleTask(new SimpleTask(Duration.ofMillis(100)));
+        scheduler.scheduleTask(new SimpleTask(Duration.ofMillis(100)));
+
+        assertEquals(1, serverA.getTasks().size());
+        assertEquals(1, serverB.getTasks().size());
+    }
+
+    @Test
+    public void testConcurrentAddsRegisterAServerOnce() throws InterruptedException {
+        ServerSelectionStrategy strategy = ServerSelectionStrategy.roundRobin();
+        Thread[] adders = new Thread[8];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    strategy.addServer(serverA);
+                }
+            });
+            adders[i].start();
+        }
+        for (Thread adder : adders) {
+            adder.join();
+        }
+
+        assertEquals(1, strategy.getServers().size());
+    }
+
+    @Test
+    public void testEmptyStrategyReturnsNull() {
+        assertNull(ServerSelectionStrategy.powerOfTwoChoices().selectServer(null));
+        assertNull(ServerSelectionStrategy.roundRobin().selectServer(null));
+        assertNull(ServerSelectionStrategy.weightedByCapacity().selectServer(null));
+        assertNull(ServerSelectionStrategy.leastLoaded().selectServer(null));
+    }
+}
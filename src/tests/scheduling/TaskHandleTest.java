@@ -0,0 +1,172 @@
+package tests.scheduling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.TaskScheduler;
+import taskscheduler.java.exceptions.ServerException;
+import taskscheduler.java.exceptions.TaskException;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.scheduling.ServerSelectionStrategy;
+import taskscheduler.java.scheduling.TaskHandle;
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.DependentTask;
+import taskscheduler.java.tasks.SimpleTask;
+import taskscheduler.java.tasks.Task;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskHandleTest {
+
+    private TaskScheduler scheduler;
+    private Server server;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new TaskScheduler();
+        server = new Server(new RetryPolicy(1, 0, false));
+        scheduler.addServer(server);
+    }
+
+    @Test
+    public void testFutureCompletesWithTask() throws Exception {
+        Task task = new SimpleTask(Duration.ofMillis(100));
+        TaskHandle handle = scheduler.scheduleTask(task);
+        assertFalse(handle.isDone());
+
+        scheduler.executeAll();
+
+        assertSame(task, handle.getFuture().get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testThenComposeSchedulesFollowUp() throws Exception {
+        Task first = new SimpleTask(Duration.ofMillis(100));
+        Task second = new SimpleTask(Duration.ofMillis(100));
+        CompletableFuture<Task> chained = scheduler.scheduleTask(first).thenCompose(done -> {
+            try {
+                return scheduler.scheduleTask(second).getFuture();
+            } catch (ServerException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+
+        // The follow-up is scheduled as soon as the first task completes, and runs in the released pass
+        scheduler.executeAll();
+        server.markTasksReleased();
+        scheduler.executeAll();
+
+        assertSame(second, chained.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHandleObtainedAfterTheOutcomeSettles() throws Exception {
+        Task failing = new SimpleTask(Duration.ofMillis(100)) {
+            @Override
+            public void execute() throws TaskException {
+                throw new TaskException("Task failed", null);
+            }
+        };
+        Task withdrawn = new SimpleTask(Duration.ofMillis(100));
+        assertTrue(scheduler.scheduleAll(List.of(failing, withdrawn)).isEmpty());
+        assertTrue(scheduler.cancelTask(withdrawn, false));
+        scheduler.executeAll();
+
+        // scheduleAll() returns no handles, so callers ask for them once the tasks may already be settled
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> scheduler.getHandle(failing).getFuture().get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TaskException.class, failure.getCause());
+        assertTrue(scheduler.getHandle(withdrawn).isCancelled());
+    }
+
+    @Test
+    public void testCancelRemovesQueuedTaskAndSkipsDependents() throws Exception {
+        DependentTask taskA = new DependentTask(Duration.ofMillis(100), TaskPriority.HIGH);
+        DependentTask taskB = new DependentTask(Duration.ofMillis(100), TaskPriority.LOW);
+        taskB.addDependentTask(taskA.getId());
+        TaskHandle handleA = scheduler.scheduleTask(taskA);
+        TaskHandle handleB = scheduler.scheduleTask(taskB);
+
+        assertTrue(handleA.cancel(false));
+        assertTrue(handleA.isCancelled());
+        assertEquals(1, server.getTasks().size(), "The cancelled task should leave the queue.");
+        assertFalse(handleA.cancel(false), "A task can only be cancelled once.");
+
+        scheduler.executeAll();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> handleB.getFuture().get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TaskException.class, failure.getCause());
+        assertFalse(taskA.isCompleted());
+    }
+
+    @Test
+    public void testDependentFailsWhenItsDependencyFailsOnAnotherServer() throws Exception {
+        // Round-robin places the dependent on the first server and its dependency on the second
+        TaskScheduler cluster = new TaskScheduler(ServerSelectionStrategy.roundRobin());
+        Server first = new Server(new RetryPolicy(1, 0, false));
+        Server second = new Server(new RetryPolicy(1, 0, false));
+        cluster.addServer(first);
+        cluster.addServer(second);
+        Task dependency = new SimpleTask(Duration.ofMillis(100)) {
+            @Override
+            public void execute() throws TaskException {
+                throw new TaskException("Task failed", null);
+            }
+        };
+        DependentTask dependent = new DependentTask(Duration.ofMillis(100), TaskPriority.HIGH);
+        dependent.addDependentTask(dependency.getId());
+        TaskHandle handle = cluster.scheduleTask(dependent);
+        cluster.scheduleTask(dependency);
+
+        cluster.executeAll();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> handle.getFuture().get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TaskException.class, failure.getCause());
+        assertTrue(first.getTasks().isEmpty(), "The dependent should not stay queued.");
+        assertFalse(dependent.isCompleted());
+    }
+
+    @Test
+    public void testCancelRunningTaskInterruptsIt() throws Exception {
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        BlockingTask task = new BlockingTask(started);
+        TaskHandle handle = scheduler.scheduleTask(task);
+
+        CompletableFuture<Void> execution = CompletableFuture.runAsync(scheduler::executeAll);
+        started.get(1, TimeUnit.SECONDS);
+        assertTrue(handle.cancel(true));
+        execution.get(2, TimeUnit.SECONDS);
+
+        assertTrue(handle.isCancelled());
+        assertTrue(task.interrupted, "The running attempt should be interrupted.");
+        assertTrue(server.getTasks().isEmpty(), "The cancelled task should not be retried.");
+    }
+
+    // Task that blocks until interrupted
+    private static class BlockingTask extends SimpleTask {
+        private final CompletableFuture<Void> started;
+        private volatile boolean interrupted;
+
+        BlockingTask(CompletableFuture<Void> started) {
+            super(Duration.ofMillis(100));
+            this.started = started;
+        }
+
+        @Override
+        public void execute() throws TaskException {
+            started.complete(null);
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                throw new TaskException("Task interrupted", e);
+            }
+        }
+    }
+}
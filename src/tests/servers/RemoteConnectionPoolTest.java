@@ -0,0 +1,133 @@
+package tests.servers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.protocol.RemoteRequest;
+import taskscheduler.java.protocol.RemoteResponse;
+import taskscheduler.java.protocol.WireCodec;
+import taskscheduler.java.servers.RemoteConnection;
+import taskscheduler.java.servers.RemoteConnectionPool;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteConnectionPoolTest {
+
+    private ServerSocket serverSocket;
+    private final AtomicInteger accepted = new AtomicInteger();
+    private RemoteConnectionPool pool;
+
+    // Fake executor: reads requests in pairs and answers each pair in reverse order
+    @BeforeEach
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    Socket socket = serverSocket.accept();
+                    accepted.incrementAndGet();
+                    new Thread(() -> serve(socket)).start();
+                }
+            } catch (IOException e) {
+                // Server socket closed by tearDown
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        pool = new RemoteConnectionPool("localhost", serverSocket.getLocalPort(), 2, 0, 60_000);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        pool.close();
+        serverSocket.close();
+    }
+
+    private static void serve(Socket socket) {
+        WireCodec codec = new WireCodec();
+        try (InputStream in = socket.getInputStream();
+             OutputStream out = socket.getOutputStream()) {
+            List<RemoteRequest> pair = new ArrayList<>();
+            ByteBuffer frame;
+            while ((frame = codec.readFrame(in)) != null) {
+                pair.add(codec.decodeRequest(frame));
+                if (pair.size() == 2) {
+                    for (int i = pair.size() - 1; i >= 0; i--) {
+                        WireCodec.writeFrame(out, codec.encode(new RemoteResponse(pair.get(i).getRequestId(), RemoteResponse.Status.PONG)));
+                    }
+                    pair.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Client closed the connection
+        }
+    }
+
+    @Test
+    public void testRepliesAreMatchedOutOfOrder() throws Exception {
+        RemoteConnection connection = pool.connection();
+        CompletableFuture<RemoteResponse> first = connection.ping();
+        CompletableFuture<RemoteResponse> second = connection.ping();
+
+        RemoteResponse firstReply = first.get(5, TimeUnit.SECONDS);
+        RemoteResponse secondReply = second.get(5, TimeUnit.SECONDS);
+        assertNotEquals(firstReply.getRequestId(), secondReply.getRequestId());
+        assertEquals(RemoteResponse.Status.PONG, firstReply.getStatus());
+        assertEquals(0, connection.getInFlightCount());
+    }
+
+    @Test
+    public void testIdleConnectionIsReused() throws Exception {
+        RemoteConnection connection = pool.connection();
+        CompletableFuture<RemoteResponse> first = connection.ping();
+        CompletableFuture<RemoteResponse> second = connection.ping();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        assertSame(connection, pool.connection());
+        assertEquals(1, accepted.get());
+    }
+
+    @Test
+    public void testBusyConnectionOpensAnotherUpToTheLimit() throws Exception {
+        RemoteConnection first = pool.connection();
+        first.ping();  // Left unanswered: the fake executor waits for a second request
+        RemoteConnection second = pool.connection();
+        second.ping();
+
+        assertNotSame(first, second);
+        assertEquals(2, pool.size());
+        assertTrue(pool.connection() == first || pool.connection() == second);  // Pool is full
+    }
+
+    @Test
+    public void testTimedOutPingIsNoLongerInFlight() throws Exception {
+        RemoteConnection connection = pool.connection();
+        CompletableFuture<RemoteResponse> unanswered = connection.ping(50, TimeUnit.MILLISECONDS);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> unanswered.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        assertEquals(0, connection.getInFlightCount());
+    }
+
+    @Test
+    public void testClosingFailsOutstandingRequests() throws Exception {
+        RemoteConnection connection = pool.connection();
+        CompletableFuture<RemoteResponse> unanswered = connection.ping();
+        connection.close();
+
+        assertTrue(unanswered.isCompletedExceptionally());
+        assertFalse(connection.isOpen());
+    }
+}
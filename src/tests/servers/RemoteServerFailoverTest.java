@@ -0,0 +1,85 @@
+package tests.servers;
+
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.TaskScheduler;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.servers.RemoteConnectionPool;
+import taskscheduler.java.servers.RemoteServer;
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.SimpleTask;
+import taskscheduler.java.tasks.Task;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteServerFailoverTest {
+
+    // A port nothing listens on, so every connection attempt is refused
+    private static int deadPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Test
+    public void testTasksOfDeadServerRunOnHealthyServer() throws Exception {
+        int port = deadPort();
+        RemoteConnectionPool pool = new RemoteConnectionPool("localhost", port, 1, 0, 60_000);
+        RemoteServer remote = new RemoteServer("localhost", port, new RetryPolicy(2, 0, false), pool);
+        remote.setSuspectAfterFailures(1);
+        Server local = new Server(new RetryPolicy(2, 0, false));
+        TaskScheduler scheduler = new TaskScheduler();
+        scheduler.addServer(remote);
+        scheduler.addServer(local);
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Task task = new SimpleTask(Duration.ofMillis(10));
+            tasks.add(task);
+            scheduler.getCompletionRegistry().registerPending(task.getId());
+        }
+        remote.addTasks(tasks);
+
+        Map<Server, List<Task>> results = scheduler.executeAll();
+        remote.stopHeartbeat();
+        pool.close();
+
+        assertTrue(remote.isSuspected());
+        assertTrue(scheduler.getUnavailableServers().contains(remote));
+        assertFalse(scheduler.getSelectionStrategy().getServers().contains(remote), "A suspected server should not be selected.");
+        assertTrue(scheduler.getFailedServers().isEmpty(), "A dead server should not abort the execution.");
+        assertEquals(5, results.get(local).size(), "Every task should be rerouted to the healthy server.");
+        assertTrue(remote.getTasks().isEmpty());
+        assertTrue(remote.getFailedTasks().isEmpty());
+    }
+
+    @Test
+    public void testHandedOverTaskIsNotRunTwice() throws Exception {
+        int port = deadPort();
+        RemoteConnectionPool pool = new RemoteConnectionPool("localhost", port, 1, 0, 60_000);
+        RemoteServer remote = new RemoteServer("localhost", port, new RetryPolicy(2, 0, false), pool);
+        Server local = new Server(new RetryPolicy(2, 0, false));
+        TaskScheduler scheduler = new TaskScheduler();
+        scheduler.addServer(remote);
+        scheduler.addServer(local);
+        remote.stopHeartbeat();
+
+        // The same task ended up queued on both servers; it already completed on the local one
+        Task task = new SimpleTask(Duration.ofMillis(10));
+        scheduler.getCompletionRegistry().registerPending(task.getId());
+        local.addTask(task);
+        local.executeTasks();
+        remote.addTask(task);
+
+        assertTrue(remote.executeTasks().isEmpty(), "A task completed elsewhere should not run again.");
+        assertTrue(remote.getTasks().isEmpty());
+        assertTrue(remote.getFailedTasks().isEmpty());
+        pool.close();
+    }
+}
@@ -0,0 +1,157 @@
+package tests.servers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.TaskScheduler;
+import taskscheduler.java.exceptions.ServerException;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.protocol.RemoteRequest;
+import taskscheduler.java.protocol.RemoteResponse;
+import taskscheduler.java.protocol.WireCodec;
+import taskscheduler.java.servers.RemoteConnectionPool;
+import taskscheduler.java.servers.RemoteServer;
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.DependentTask;
+import taskscheduler.java.tasks.SimpleTask;
+import taskscheduler.java.tasks.Task;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteServerPipelineTest {
+
+    private ServerSocket serverSocket;
+    private RemoteConnectionPool pool;
+    private final List<RemoteRequest> received = new CopyOnWriteArrayList<>();
+
+    // Fake executor: acknowledges every task except those whose ID starts with "fail", and answers BUSY
+    // to those whose ID starts with "busy"
+    @BeforeEach
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0);
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    Socket socket = serverSocket.accept();
+                    new Thread(() -> serve(socket)).start();
+                }
+            } catch (IOException e) {
+                // Server socket closed by tearDown
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        pool = new RemoteConnectionPool("localhost", serverSocket.getLocalPort(), 1, 0, 60_000);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        pool.close();
+        serverSocket.close();
+    }
+
+    private void serve(Socket socket) {
+        WireCodec codec = new WireCodec();
+        try (InputStream in = socket.getInputStream();
+             OutputStream out = socket.getOutputStream()) {
+            ByteBuffer frame;
+            while ((frame = codec.readFrame(in)) != null) {
+                RemoteRequest request = codec.decodeRequest(frame);
+                received.add(request);
+                List<RemoteResponse.Status> statuses = new ArrayList<>();
+                for (Task task : request.getTasks()) {
+                    if (task.getId().startsWith("fail")) {
+                        statuses.add(RemoteResponse.Status.FAILED);
+                    } else if (task.getId().startsWith("busy")) {
+                        statuses.add(RemoteResponse.Status.BUSY);
+                    } else {
+                        statuses.add(RemoteResponse.Status.ACK);
+                    }
+                }
+                WireCodec.writeFrame(out, codec.encode(new RemoteResponse(request.getRequestId(), statuses, 5)));
+            }
+        } catch (IOException e) {
+            // Client closed the connection
+        }
+    }
+
+    @Test
+    public void testReadyTasksAreSentInBatches() throws ServerException {
+        RemoteServer server = new RemoteServer("localhost", serverSocket.getLocalPort(),
+                new RetryPolicy(1, 0, false), pool, 8, 4);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(task("task-" + i));
+        }
+        server.addTasks(tasks);
+
+        List<Task> completed = server.executeTasks();
+
+        assertEquals(10, completed.size());
+        assertTrue(received.stream().anyMatch(request -> request.getType() == RemoteRequest.Type.BATCH),
+                "Ready tasks should share a batch frame.");
+        assertTrue(received.stream().allMatch(request -> request.getTasks().size() <= 4),
+                "No frame should exceed the batch size.");
+        assertEquals(10, received.stream().mapToInt(request -> request.getTasks().size()).sum());
+    }
+
+    @Test
+    public void testRejectedTaskInBatchIsRetriedAlone() throws ServerException {
+        RemoteServer server = new RemoteServer("localhost", serverSocket.getLocalPort(),
+                new RetryPolicy(2, 0, false), pool, 8, 4);
+        server.addTasks(List.of(task("ok-1"), task("fail-1"), task("ok-2")));
+
+        List<Task> completed = server.executeTasks();
+
+        assertEquals(2, completed.size());
+        assertEquals(1, server.getFailedTasks().size());
+        assertEquals("fail-1", server.getFailedTasks().get(0).getId());
+        long attempts = received.stream().flatMap(request -> request.getTasks().stream())
+                .filter(task -> task.getId().equals("fail-1")).count();
+        assertEquals(2, attempts, "The failed task should be sent once per allowed attempt.");
+    }
+
+    @Test
+    public void testBusyTaskIsResentThenHandedToAnotherServer() throws ServerException {
+        TaskScheduler scheduler = new TaskScheduler();
+        RemoteServer remote = new RemoteServer("localhost", serverSocket.getLocalPort(),
+                new RetryPolicy(1, 0, false), pool, 8, 4);
+        remote.setMaxBusyRetries(2);
+        Server local = new Server(new RetryPolicy(1, 0, false));
+        scheduler.addServer(remote);
+        scheduler.addServer(local);
+        Task busy = task("busy-1");
+        Task dependent = new DependentTask(Duration.ofMillis(10), TaskPriority.LOW, Set.of("busy-1"));
+        remote.addTasks(List.of(busy, dependent));
+        scheduler.getCompletionRegistry().registerPending("busy-1");
+        scheduler.getCompletionRegistry().registerPending(dependent.getId());
+
+        Map<Server, List<Task>> results = scheduler.executeAll();
+        remote.stopHeartbeat();
+
+        long sends = received.stream().flatMap(request -> request.getTasks().stream())
+                .filter(task -> task.getId().equals("busy-1")).count();
+        assertEquals(3, sends, "The task should be resent until the busy retries run out.");
+        assertTrue(results.get(local).contains(busy), "The busy task should run on the other server.");
+        assertTrue(results.get(remote).contains(dependent), "Its dependent should follow once it completes elsewhere.");
+        assertTrue(remote.getFailedTasks().isEmpty());
+    }
+
+    private static Task task(String id) {
+        SimpleTask task = new SimpleTask(Duration.ofMillis(10));
+        task.setId(id);
+        return task;
+    }
+}
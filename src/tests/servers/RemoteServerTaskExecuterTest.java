@@ -0,0 +1,213 @@
+package tests.servers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.exceptions.TaskException;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.protocol.RemoteResponse;
+import taskscheduler.java.protocol.TaskCodec;
+import taskscheduler.java.protocol.TaskCodecRegistry;
+import taskscheduler.java.protocol.TaskDescriptor;
+import taskscheduler.java.servers.RemoteConnection;
+import taskscheduler.java.servers.RemoteConnectionPool;
+import taskscheduler.java.servers.RemoteServer;
+import taskscheduler.java.servers.RemoteServerTaskExecuter;
+import taskscheduler.java.tasks.SimpleTask;
+import taskscheduler.java.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteServerTaskExecuterTest {
+
+    private RemoteServerTaskExecuter executer;
+    private RemoteConnectionPool pool;
+
+    private void start(int maxConcurrentTasks, int maxQueuedTasks) throws Exception {
+        executer = new RemoteServerTaskExecuter(0, 50, maxConcurrentTasks, maxQueuedTasks);
+        executer.start();
+        pool = new RemoteConnectionPool("localhost", executer.getPort(), 2, 0, 60_000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        if (executer != null) {
+            executer.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testRemoteServerRunsTasksOnExecuter() throws Exception {
+        start(4, 100);
+        RemoteServer server = new RemoteServer("localhost", executer.getPort(), new RetryPolicy(1, 0, false), pool);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(new SimpleTask(Duration.ofMillis(10)));
+        }
+        server.addTasks(tasks);
+
+        assertEquals(50, server.executeTasks().size());
+        assertTrue(server.getFailedTasks().isEmpty());
+    }
+
+    @Test
+    public void testManyConnectionsShareTheSelector() throws Exception {
+        start(2, 100);
+        List<RemoteConnection> connections = new ArrayList<>();
+        List<CompletableFuture<RemoteResponse>> pings = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            RemoteConnection connection = new RemoteConnection("localhost", executer.getPort(), 5_000);
+            connections.add(connection);
+            pings.add(connection.ping());
+        }
+
+        for (CompletableFuture<RemoteResponse> ping : pings) {
+            assertEquals(RemoteResponse.Status.PONG, ping.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals(50, executer.getOpenConnectionCount());
+        connections.forEach(RemoteConnection::close);
+    }
+
+    @Test
+    public void testTasksBeyondTheQueueLimitAreShed() throws Exception {
+        start(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskCodecRegistry.getDefault().register(new BlockingTaskCodec(release));
+        try {
+            RemoteConnection connection = pool.connection();
+            List<Task> batch = List.of(new BlockingTask(release), new BlockingTask(release), new BlockingTask(release));
+            CompletableFuture<RemoteResponse> reply = connection.sendBatch(batch);
+            Thread.sleep(200);  // One task runs, one is queued, the third does not fit
+            release.countDown();
+
+            List<RemoteResponse.Status> statuses = reply.get(5, TimeUnit.SECONDS).getStatuses();
+            assertEquals(2, statuses.stream().filter(status -> status == RemoteResponse.Status.ACK).count());
+            assertEquals(1, statuses.stream().filter(status -> status == RemoteResponse.Status.BUSY).count());
+            assertTrue(reply.get().getRetryAfterMillis() > 0);
+            assertEquals(2, executer.getAdmittedTaskCount());
+            assertEquals(1, executer.getShedTaskCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testShutdownLetsRunningTasksReply() throws Exception {
+        start(1, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskCodecRegistry.getDefault().register(new BlockingTaskCodec(release));
+        CompletableFuture<RemoteResponse> reply = pool.connection().sendTask(new BlockingTask(release));
+        Thread.sleep(100);
+
+        CompletableFuture<Boolean> stopped = CompletableFuture.supplyAsync(() -> executer.shutdown(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertFalse(stopped.isDone(), "Shutdown should wait for the running task.");
+        release.countDown();
+
+        assertEquals(RemoteResponse.Status.ACK, reply.get(5, TimeUnit.SECONDS).getStatus());
+        assertTrue(stopped.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHeartbeatReportsExecutorLoad() throws Exception {
+        start(1, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskCodecRegistry.getDefault().register(new BlockingTaskCodec(release));
+        try {
+            // Another client keeps the executor busy
+            pool.connection().sendBatch(List.of(new BlockingTask(release), new BlockingTask(release), new BlockingTask(release)));
+            RemoteServer server = new RemoteServer("localhost", executer.getPort(), new RetryPolicy(1, 0, false), pool);
+            assertEquals(0, server.getTotalLoad());
+
+            server.startHeartbeat(20);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (server.getTelemetry().getQueueDepth() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            server.stopHeartbeat();
+
+            assertEquals(2, server.getTelemetry().getQueueDepth());
+            assertEquals(1, server.getTelemetry().getRunningTasks());
+            assertTrue(server.getTotalLoad() > 0, "A busy executor should count towards the server's load.");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testResentTaskRunsOnce() throws Exception {
+        start(2, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskCodecRegistry.getDefault().register(new BlockingTaskCodec(release));
+        BlockingTask task = new BlockingTask(release);
+        RemoteConnection connection = pool.connection();
+
+        CompletableFuture<RemoteResponse> first = connection.sendTask(task);
+        CompletableFuture<RemoteResponse> resent = connection.sendTask(task);  // e.g. after a lost reply
+        release.countDown();
+
+        assertEquals(RemoteResponse.Status.ACK, first.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(RemoteResponse.Status.ACK, resent.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(1, executer.getAdmittedTaskCount());
+        assertEquals(1, executer.getDuplicateTaskCount());
+    }
+
+    // Task that completes once the latch is released; its codec hands the same latch to decoded copies
+    private static class BlockingTask extends SimpleTask {
+        private final CountDownLatch release;
+
+        BlockingTask(CountDownLatch release) {
+            super(Duration.ofMillis(1));
+            this.release = release;
+        }
+
+        @Override
+        public void execute() throws TaskException {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            setCompleted(true);
+        }
+    }
+
+    private static class BlockingTaskCodec implements TaskCodec {
+        private final CountDownLatch release;
+
+        BlockingTaskCodec(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String getTypeKey() {
+            return "test-blocking";
+        }
+
+        @Override
+        public Class<? extends Task> getTaskType() {
+            return BlockingTask.class;
+        }
+
+        @Override
+        public byte[] encodePayload(Task task) {
+            return new byte[0];
+        }
+
+        @Override
+        public Task decode(TaskDescriptor descriptor) {
+            BlockingTask task = new BlockingTask(release);
+            task.setId(descriptor.getId());
+            return task;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package tests.servers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import taskscheduler.java.TaskScheduler;
+import taskscheduler.java.exceptions.TaskException;
+import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
+import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.scheduling.ServerSelectionStrategy;
+import taskscheduler.java.scheduling.TaskHandle;
+import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.SimpleTask;
+import taskscheduler.java.tasks.Task;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerDispatcherTest {
+
+    private TaskScheduler scheduler;
+    private Server server;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = new TaskScheduler();
+        server = new Server(new RetryPolicy(1, 0, false), 2);
+        scheduler.addServer(server);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        scheduler.stopDispatching();
+        server.shutdownWorkers();
+    }
+
+    @Test
+    public void testTasksRunWithoutExecuteAll() throws Exception {
+        scheduler.startDispatching();
+        assertTrue(server.isDispatching());
+
+        SimpleTask taskA = new SimpleTask(Duration.ofMillis(100));
+        ChainedTask taskB = new ChainedTask(taskA.getId());
+        taskB.setPriority(TaskPriority.HIGH);
+        scheduler.scheduleTask(taskA);  // Dependencies are scheduled first; unknown ones fail at once
+        TaskHandle handleB = scheduler.scheduleTask(taskB);
+
+        assertSame(taskB, handleB.getFuture().get(2, TimeUnit.SECONDS));
+        assertTrue(taskA.isCompleted(), "The dependency must run before its dependent.");
+        assertTrue(server.executeTasks().isEmpty(), "Batch execution finds nothing while dispatching.");
+    }
+
+    @Test
+    public void testTaskFailedWhileBeingScheduledIsNotPending() throws Exception {
+        scheduler.startDispatching();
+        // A dispatching server fails a task with an unknown dependency inside addTask() itself
+        Task single = new ChainedTask("missing");
+        Task batched = new ChainedTask("missing");
+
+        TaskHandle handle = scheduler.scheduleTask(single);
+        assertTrue(scheduler.scheduleAll(List.of(batched)).isEmpty());
+
+        assertTrue(handle.getFuture().isCompletedExceptionally());
+        assertFalse(scheduler.getCompletionRegistry().isPending(single.getId()), "Dependents would wait forever.");
+        assertFalse(scheduler.getCompletionRegistry().isPending(batched.getId()));
+    }
+
+    @Test
+    public void testStopLeavesUnstartedTasksQueued() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        scheduler.startDispatching();
+        scheduler.scheduleTask(new GatedTask(started, release));
+        scheduler.scheduleTask(new GatedTask(started, release));
+        assertTrue(started.await(2, TimeUnit.SECONDS), "Both workers should be busy.");
+        Task queued = new SimpleTask(Duration.ofMillis(100));
+        scheduler.scheduleTask(queued);
+
+        // Release the running tasks only once stopping has begun, so no worker is free to start the queued one
+        CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        server.stopDispatching();
+
+        assertFalse(server.isDispatching());
+        assertFalse(queued.isCompleted());
+        assertTrue(server.getTasks().contains(queued), "A task that never started stays queued.");
+        assertEquals(1, server.executeTasks().size(), "The batch API picks it up again.");
+    }
+
+    @Test
+    public void testDrainFinishesDispatchedTasks() throws Exception {
+        scheduler.startDispatching();
+        TaskHandle first = scheduler.scheduleTask(new SimpleTask(Duration.ofMillis(100)));
+        TaskHandle second = scheduler.scheduleTask(new SimpleTask(Duration.ofMillis(100)));
+
+        scheduler.drain();
+
+        assertTrue(first.getFuture().isDone() && second.getFuture().isDone());
+        assertTrue(server.getTasks().isEmpty());
+        assertEquals(2, server.getCompletedTasks().size());
+    }
+
+    @Test
+    public void testPauseHoldsTasksUntilResume() throws Exception {
+        scheduler.startDispatching();
+        scheduler.pause();
+        assertTrue(server.isPaused());
+        SimpleTask task = new SimpleTask(Duration.ofMillis(100));
+        TaskHandle handle = scheduler.scheduleTask(task);
+
+        Thread.sleep(200);
+        assertFalse(task.isCompleted(), "A paused server starts nothing.");
+        assertEquals(1, server.getQueuedTaskCount(TaskPriority.LOW));
+
+        scheduler.resume();
+        handle.getFuture().get(2, TimeUnit.SECONDS);
+        scheduler.drain();
+        assertEquals(0, server.getQueuedTaskCount(TaskPriority.LOW));
+    }
+
+    @Test
+    public void testDrainCompletesWhilePaused() throws Exception {
+        scheduler.startDispatching();
+        scheduler.pause();
+        TaskHandle handle = scheduler.scheduleTask(new SimpleTask(Duration.ofMillis(100)));
+
+        scheduler.drain();
+
+        assertTrue(handle.getFuture().isDone(), "Draining runs what the dispatcher already has.");
+        assertTrue(server.isPaused());
+        assertTrue(server.executeTasks().isEmpty(), "Batch passes wait for resume().");
+    }
+
+    @Test
+    public void testDependentIsSkippedWhenItsDependencyFailsOnAnotherServer() throws Exception {
+        // Round-robin places the dependency on the first server and its dependent on the second
+        TaskScheduler cluster = new TaskScheduler(ServerSelectionStrategy.roundRobin());
+        Server first = new Server(new RetryPolicy(1, 0, false), 1);
+        Server second = new Server(new RetryPolicy(1, 0, false), 1);
+        cluster.addServer(first);
+        cluster.addServer(second);
+        CountDownLatch release = new CountDownLatch(1);
+        Task dependency = new SimpleTask(Duration.ofMillis(100)) {
+            @Override
+            public void execute() throws TaskException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new TaskException("Task interrupted", e);
+                }
+                throw new TaskException("Task failed", null);
+            }
+        };
+        try {
+            cluster.startDispatching();
+            cluster.scheduleTask(dependency);
+            TaskHandle dependent = cluster.scheduleTask(new ChainedTask(dependency.getId()));
+
+            release.countDown();
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> dependent.getFuture().get(2, TimeUnit.SECONDS));
+            assertInstanceOf(TaskException.class, failure.getCause());
+            assertTrue(second.getTasks().isEmpty(), "The skipped dependent should leave the queue.");
+        } finally {
+            cluster.stopDispatching();
+            first.shutdownWorkers();
+            second.shutdownWorkers();
+        }
+    }
+
+    // Task that reports it started and then blocks until released
+    private static class GatedTask extends SimpleTask {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        GatedTask(CountDownLatch started, CountDownLatch release) {
+            super(Duration.ofMillis(100));
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public void execute() throws TaskException {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new TaskException("Task interrupted", e);
+            }
+            super.execute();
+        }
+    }
+
+    // Task that depends on one other task
+    private static class ChainedTask extends SimpleTask {
+        private final String dependencyId;
+
+        ChainedTask(String dependencyId) {
+            super(Duration.ofMillis(100));
+            this.dependencyId = dependencyId;
+        }
+
+        @Override
+        public Set<String> getDependencies() {
+            return Set.of(dependencyId);
+        }
+    }
+}
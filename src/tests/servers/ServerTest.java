@@ -8,12 +8,14 @@ import taskscheduler.java.exceptions.SchedulerFullException;
 import taskscheduler.java.exceptions.ServerException;
 import taskscheduler.java.exceptions.TaskException;
 import taskscheduler.java.other.AlertSystem;
-import taskscheduler.java.other.PerformanceMonitor;
+import taskscheduler.java.other.Duration;
 import taskscheduler.java.other.RetryPolicy;
 import taskscheduler.java.servers.Server;
+import taskscheduler.java.tasks.SimpleTask;
 import taskscheduler.java.tasks.Task;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,7 +25,6 @@ class ServerTest {
 
     private Server server;
     private RetryPolicy retryPolicy;
-    private PerformanceMonitor performanceMonitor;
     private AlertSystem alertSystem;
     private Task task;
 
@@ -32,13 +33,10 @@ class ServerTest {
         // Mock dependencies
         retryPolicy = Mockito.mock(RetryPolicy.class);
         alertSystem = Mockito.mock(AlertSystem.class);
-        performanceMonitor = Mockito.mock(PerformanceMonitor.class);
 
-        // Spy the PerformanceMonitor to ensure monitor methods are called
-        performanceMonitor = Mockito.spy(new PerformanceMonitor(server, alertSystem));
-
-        // Create a server instance with mocks
-        server = new Server(retryPolicy);
+        // Create a server instance with mocks; its monitor raises alerts through the mocked alert system
+        server = new Server(retryPolicy, 1, alertSystem);
+        server.getPerformanceMonitor().stopEvaluation();  // No background tick, so any evaluation comes from the server
 
         // Mock task
         task = Mockito.mock(Task.class);
@@ -53,17 +51,17 @@ class ServerTest {
         server.addTask(task);
 
         // Check if the task has been added and remaining capacity updated
-        assertEquals(BigInteger.valueOf(25000), server.getRemainingCapacity());
+        assertEquals(25000L, server.getRemainingCapacity());
         assertTrue(server.getTasks().contains(task));
 
-        // Verify that monitoring and alerting was triggered
-        verify(performanceMonitor).monitorAndAlert();
+        // Verify that alerts are left to the monitor's tick rather than evaluated per task
+        verifyNoInteractions(alertSystem);
     }
 
     @Test
     public void testAddTaskWhenFull() {
         // Reduce server's capacity to simulate a full server
-        server.setRemainingCapacity(BigInteger.valueOf(1000));
+        server.setRemainingCapacity(1000L);
 
         // Mock task duration greater than remaining capacity
         when(task.getEstimatedDuration()).thenReturn(new taskscheduler.java.other.Duration(BigInteger.valueOf(5000)));
@@ -72,7 +70,7 @@ class ServerTest {
         assertThrows(SchedulerFullException.class, () -> server.addTask(task));
 
         // Verify no monitoring or alerting was triggered
-        verify(performanceMonitor, never()).monitorAndAlert();
+        verifyNoInteractions(alertSystem);
     }
 
     @Test
@@ -87,10 +85,10 @@ class ServerTest {
         // Verify task execution and monitor/alert call
         assertEquals(1, completedTasks.size());
         assertTrue(completedTasks.contains(task));
-        verify(performanceMonitor, times(2)).monitorAndAlert();  // Once on addTask and once on execute
+        verifyNoInteractions(alertSystem);  // Evaluated on the monitor's tick instead
 
         // Verify task completion updated server capacity
-        assertEquals(BigInteger.valueOf(30000), server.getRemainingCapacity());
+        assertEquals(30000L, server.getRemainingCapacity());
     }
 
     @Test
@@ -108,7 +106,7 @@ class ServerTest {
         assertFalse(completedTasks.contains(task));
 
         // Verify monitoring and alerting occurred after task failure
-        verify(performanceMonitor, times(2)).monitorAndAlert();  // Once on addTask and once on execute
+        verifyNoInteractions(alertSystem);  // Evaluated on the monitor's tick instead
     }
 
     @Test
@@ -129,7 +127,7 @@ class ServerTest {
         verify(task, times(3)).execute();  // Should have retried 3 times
 
         // Verify that performance monitoring occurred after retries
-        verify(performanceMonitor, times(2)).monitorAndAlert();  // Once on addTask and once on execute
+        verifyNoInteractions(alertSystem);  // Evaluated on the monitor's tick instead
     }
 
     @Test
@@ -147,6 +145,23 @@ class ServerTest {
         assertTrue(completedTasks.contains(task));
     }
 
+    @Test
+    public void testTickEvaluatesThresholds() throws ServerException {
+        // Run submitted checks inline so the evaluation itself reaches the mocked alert system
+        when(alertSystem.submitCheck(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        });
+        server.addTask(task);
+        verifyNoInteractions(alertSystem);
+
+        server.getPerformanceMonitor().startEvaluation(10);
+
+        verify(alertSystem, timeout(1000).atLeastOnce()).checkForHighTaskQueue(eq(1), anyInt());
+        verify(alertSystem, atLeastOnce()).checkForHighFailureRate(anyDouble(), anyDouble());
+        server.getPerformanceMonitor().stopEvaluation();
+    }
+
     @Test
     public void testGetFailedTasks() throws ServerException, TaskException {
         // Setup task to fail execution
@@ -169,7 +184,77 @@ class ServerTest {
         server.addTask(task);
 
         // Verify the total load calculation
-        assertEquals(BigInteger.valueOf(5000), server.getTotalLoad());
+        assertEquals(5000L, server.getTotalLoad());
     }
-}
 
+    @Test
+    public void testConcurrentWorkersCompleteAllTasks() throws ServerException {
+        // Server draining its queue with four workers
+        Server concurrentServer = new Server(new RetryPolicy(1, 0, false), 4);
+        for (int i = 0; i < 20; i++) {
+            concurrentServer.addTask(new SimpleTask(Duration.ofMillis(100)));
+        }
+
+        List<Task> completedTasks = concurrentServer.executeTasks();
+
+        // Every task completes exactly once and all capacity is released
+        assertEquals(20, completedTasks.size());
+        assertEquals(20, concurrentServer.getCompletedTasks().size());
+        assertTrue(concurrentServer.getFailedTasks().isEmpty());
+        assertTrue(concurrentServer.getTasks().isEmpty());
+        assertEquals(Server.DEFAULT_MAX_CAPACITY, concurrentServer.getRemainingCapacity());
+        concurrentServer.shutdownWorkers();
+    }
+
+    @Test
+    public void testRetryDelayDoesNotBlockOtherTasks() throws ServerException, TaskException {
+        // One worker, two attempts, one second between them
+        Server retryingServer = new Server(new RetryPolicy(2, 1, false));
+
+        // High priority task that fails on its first attempt
+        Task flakyTask = Mockito.mock(Task.class);
+        when(flakyTask.getId()).thenReturn("flaky");
+        when(flakyTask.getPriority()).thenReturn(taskscheduler.java.other.TaskPriority.HIGH);
+        when(flakyTask.getEstimatedDuration()).thenReturn(Duration.ofMillis(100));
+        when(flakyTask.isCompleted()).thenReturn(true);
+        doThrow(new TaskException("Simulated failure", new Throwable())).doNothing().when(flakyTask).execute();
+
+        Task quickTask = new SimpleTask(Duration.ofMillis(100));
+        retryingServer.addTask(flakyTask);
+        retryingServer.addTask(quickTask);
+
+        List<Task> completedTasks = retryingServer.executeTasks();
+
+        // The low priority task ran while the flaky one waited for its retry
+        assertEquals(List.of(quickTask, flakyTask), completedTasks);
+        verify(flakyTask, times(2)).execute();
+    }
+
+    @Test
+    public void testRetryBudgetFailsTasksFast() throws ServerException, TaskException {
+        // Budget allows a single waiting retry for the whole server
+        Server budgetedServer = new Server(new RetryPolicy(3, 1, false, 0.0, 1));
+        List<Task> failingTasks = new ArrayList<>();
+        for (String id : new String[]{"first", "second"}) {
+            Task failingTask = Mockito.mock(Task.class);
+            when(failingTask.getId()).thenReturn(id);
+            when(failingTask.getPriority()).thenReturn(taskscheduler.java.other.TaskPriority.MEDIUM);
+            when(failingTask.getEstimatedDuration()).thenReturn(Duration.ofMillis(100));
+            doThrow(new TaskException("Simulated failure", new Throwable())).when(failingTask).execute();
+            budgetedServer.addTask(failingTask);
+            failingTasks.add(failingTask);
+        }
+
+        budgetedServer.executeTasks();
+
+        // Both fail; only one could ever be waiting for a retry, so the other failed after its first attempt
+        assertEquals(2, budgetedServer.getFailedTasks().size());
+        int executions = 0;
+        for (Task failingTask : failingTasks) {
+            executions += Mockito.mockingDetails(failingTask).getInvocations().stream()
+                    .filter(invocation -> invocation.getMethod().getName().equals("execute"))
+                    .count();
+        }
+        assertEquals(4, executions, "One task should use all three attempts and the other only one.");
+    }
+}
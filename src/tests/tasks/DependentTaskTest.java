@@ -11,6 +11,8 @@ import taskscheduler.java.tasks.DependentTask;
 import java.math.BigInteger;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -100,4 +102,27 @@ class DependentTaskTest {
         assertTrue(exception.getMessage().contains("Task execution failed"),
                 "Exception message should indicate task failure.");
     }
+
+    @Test
+    public void testTimedOutTaskIsNotMarkedCompleted() throws InterruptedException {
+        CountDownLatch bodyFinished = new CountDownLatch(1);
+        DependentTask slowTask = new DependentTask(Duration.ofMillis(300), TaskPriority.HIGH) {
+            @Override
+            public void simulateTaskExecution() {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();  // Swallowed like the real simulation does
+                } finally {
+                    bodyFinished.countDown();
+                }
+            }
+        };
+        slowTask.setTimeout(50);
+
+        assertThrows(TaskException.class, slowTask::execute);
+        assertTrue(bodyFinished.await(1, TimeUnit.SECONDS));
+        Thread.sleep(50);  // Let the interrupted body run to its end
+        assertFalse(slowTask.isCompleted(), "A task that timed out must not report success.");
+    }
 }
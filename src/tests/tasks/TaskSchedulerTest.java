@@ -3,16 +3,24 @@ package tests.tasks;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import taskscheduler.java.exceptions.ServerException;
 import taskscheduler.java.tasks.DependentTask;
 import taskscheduler.java.other.Duration;
+import taskscheduler.java.other.RetryPolicy;
 import taskscheduler.java.other.TaskPriority;
+import taskscheduler.java.scheduling.ServerSelectionStrategy;
 import taskscheduler.java.servers.RemoteServer;
 import taskscheduler.java.servers.Server;
 import taskscheduler.java.TaskScheduler;
+import taskscheduler.java.tasks.Task;
 
-import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,5 +69,107 @@ public class TaskSchedulerTest {
         // Act & Assert
         assertThrows(RuntimeException.class, () -> mockRemoteServer.executeTasks(), "Remote server failed");
     }
-}
 
+    @Test
+    public void testParallelExecutionReportsFailuresPerServer() throws Exception {
+        // Arrange: one healthy server and one failing server
+        Server healthyServer = Mockito.mock(Server.class);
+        when(healthyServer.executeTasks()).thenReturn(Collections.singletonList(mockTask));
+        when(mockRemoteServer.executeTasks()).thenThrow(new ServerException("Remote server failed", new Exception()));
+        when(healthyServer.getTotalLoad()).thenReturn(0L);
+        when(mockRemoteServer.getTotalLoad()).thenReturn(1L);
+
+        taskScheduler.addServer(healthyServer);
+        taskScheduler.addServer(mockRemoteServer);
+
+        // Act
+        Map<Server, List<Task>> results = taskScheduler.executeAllInParallel();
+
+        // Assert that the failing server did not prevent the healthy one from reporting
+        assertEquals(List.of(mockTask), results.get(healthyServer));
+        assertTrue(results.get(mockRemoteServer).isEmpty(), "Failed server should report no completed tasks.");
+        assertTrue(taskScheduler.getFailedServers().containsKey(mockRemoteServer), "Failure should be reported per server.");
+        assertFalse(taskScheduler.getFailedServers().containsKey(healthyServer));
+    }
+
+    @Test
+    public void testParallelExecutionIsNotCappedByCores() throws Exception {
+        // Every server blocks until all of them are running, which only works with a thread per server
+        int serverCount = Runtime.getRuntime().availableProcessors() + 2;
+        CountDownLatch allRunning = new CountDownLatch(serverCount);
+        for (int i = 0; i < serverCount; i++) {
+            Server server = Mockito.mock(Server.class);
+            when(server.executeTasks()).thenAnswer(invocation -> {
+                allRunning.countDown();
+                if (!allRunning.await(2, TimeUnit.SECONDS)) {
+                    throw new ServerException("Servers did not run at the same time", new Exception());
+                }
+                return List.of();
+            });
+            taskScheduler.addServer(server);
+        }
+
+        Map<Server, List<Task>> results = taskScheduler.executeAllInParallel();
+
+        assertEquals(serverCount, results.size());
+        assertTrue(taskScheduler.getFailedServers().isEmpty(), "Every server should have run concurrently.");
+    }
+
+    @Test
+    public void testScheduleAllPacksTasksAndReportsUnplaced() throws Exception {
+        // Two servers with the default capacity of 30000 ms each
+        RetryPolicy retryPolicy = new RetryPolicy(1, 0, false);
+        Server serverA = new Server(retryPolicy);
+        Server serverB = new Server(retryPolicy);
+        taskScheduler.addServer(serverA);
+        taskScheduler.addServer(serverB);
+
+        // Seven 10000 ms tasks: only six fit across both servers
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            tasks.add(new DependentTask(Duration.ofMillis(10000), TaskPriority.MEDIUM));
+        }
+
+        List<Task> unplaced = taskScheduler.scheduleAll(tasks);
+
+        assertEquals(1, unplaced.size(), "Exactly one task should not fit.");
+        assertEquals(3, serverA.getTasks().size());
+        assertEquals(3, serverB.getTasks().size());
+        assertEquals(0L, serverA.getRemainingCapacity());
+        assertEquals(0L, serverB.getRemainingCapacity());
+    }
+
+    @Test
+    public void testDependencyAcrossServersIsReleased() throws Exception {
+        // Round-robin places B on the first server and its dependency A on the second
+        TaskScheduler roundRobinScheduler = new TaskScheduler(ServerSelectionStrategy.roundRobin());
+        RetryPolicy retryPolicy = new RetryPolicy(1, 0, false);
+        Server firstServer = new Server(retryPolicy);
+        Server secondServer = new Server(retryPolicy);
+        roundRobinScheduler.addServer(firstServer);
+        roundRobinScheduler.addServer(secondServer);
+
+        Task taskA = mockTask("A", Set.of());
+        Task taskB = mockTask("B", Set.of("A"));
+        roundRobinScheduler.scheduleTask(taskB);
+        roundRobinScheduler.scheduleTask(taskA);
+
+        // Act
+        Map<Server, List<Task>> results = roundRobinScheduler.executeAll();
+
+        // B waits for A on the other server instead of failing, then runs once A completes
+        assertEquals(List.of(taskB), results.get(firstServer));
+        assertEquals(List.of(taskA), results.get(secondServer));
+        assertTrue(firstServer.getFailedTasks().isEmpty(), "Waiting on another server should not count as a failure.");
+    }
+
+    private static Task mockTask(String id, Set<String> dependencies) {
+        Task task = Mockito.mock(Task.class);
+        when(task.getId()).thenReturn(id);
+        when(task.getDependencies()).thenReturn(dependencies);
+        when(task.getPriority()).thenReturn(TaskPriority.MEDIUM);
+        when(task.getEstimatedDuration()).thenReturn(Duration.ofMillis(100));
+        when(task.isCompleted()).thenReturn(true);
+        return task;
+    }
+}